@@ -0,0 +1,65 @@
+// k6 ingest throughput: rows/s through POST /api/tracker/batch vs one POST per row.
+//   k6 run -e MODE=batch -e BATCH_SIZE=500 loadtest/batch/ingest.js
+//   k6 run -e MODE=single loadtest/batch/ingest.js
+// Uses the loadtest-user-<n> accounts from loadtest/login/seed-users.sql.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MODE = __ENV.MODE || 'batch';
+const BATCH_SIZE = parseInt(__ENV.BATCH_SIZE || '500', 10);
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+// the number compared between the two modes; its rate in the summary is rows/s
+const rows = new Counter('rows_inserted');
+
+export const options = {
+    vus: parseInt(__ENV.VUS || '20', 10),
+    duration: __ENV.DURATION || '1m',
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    const ids = [];
+    for (let n = 1; n <= 20; n++) {
+        const res = http.post(`${BASE_URL}/api/auth/login`,
+            JSON.stringify({ email: `loadtest-user-${n}@example.com`, password: 'loadtest' }), JSON_HEADERS);
+        if (res.status === 200 && res.json('userId')) {
+            ids.push(res.json('userId'));
+        }
+    }
+    if (ids.length === 0) {
+        throw new Error('no seeded accounts could log in; run loadtest/login/seed-users.sql first');
+    }
+    return { ids };
+}
+
+// exerciseType marks the rows so they can be deleted afterwards
+function workout(i) {
+    return { exerciseType: 'loadtest-ingest', durationMinutes: 20 + (i % 40), caloriesBurned: 150 + (i % 300) };
+}
+
+export default function (data) {
+    const userId = data.ids[(__VU - 1) % data.ids.length];
+
+    if (MODE === 'single') {
+        const res = http.post(`${BASE_URL}/api/tracker/workouts`,
+            JSON.stringify(Object.assign({ userId }, workout(__ITER))), JSON_HEADERS);
+        if (check(res, { 'workout logged': (r) => r.status === 200 })) {
+            rows.add(1);
+        }
+        return;
+    }
+
+    const workouts = [];
+    for (let i = 0; i < BATCH_SIZE; i++) {
+        workouts.push(workout(i));
+    }
+    const res = http.post(`${BASE_URL}/api/tracker/batch`, JSON.stringify({ userId, workouts }), JSON_HEADERS);
+    if (check(res, { 'batch saved': (r) => r.status === 200 })) {
+        rows.add(BATCH_SIZE);
+    }
+}
@@ -0,0 +1,37 @@
+#!/usr/bin/env bash
+# Rows/s inserted through POST /api/tracker/batch compared with one
+# POST /api/tracker/workouts per row, same VUs and duration. The backend must
+# be running against MySQL (rewriteBatchedStatements=true, as in
+# application.properties) with the rate limiter off and the login accounts
+# seeded (loadtest/login/seed-users.sql).
+#   MYSQL="mysql -uroot -pRoot@123 wellnestdb" ./loadtest/batch/run.sh
+set -euo pipefail
+
+MYSQL=${MYSQL:-"mysql -uroot -p wellnestdb"}
+DIR=$(cd "$(dirname "$0")" && pwd)
+
+for mode in single batch; do
+    echo "=== ${mode} ==="
+    k6 run --quiet -e MODE="${mode}" --summary-export "${DIR}/summary-${mode}.json" "${DIR}/ingest.js" || true
+done
+
+# the rows are real workouts for the seeded accounts: take them back out of the
+# daily rollup, then delete them
+$MYSQL -e "
+UPDATE daily_summaries s JOIN (
+    SELECT user_id, log_date, SUM(duration_minutes) AS minutes, COUNT(*) AS sessions, SUM(calories_burned) AS calories
+    FROM workout_logs WHERE exercise_type = 'loadtest-ingest' GROUP BY user_id, log_date
+) w ON s.user_id = w.user_id AND s.summary_date = w.log_date
+SET s.workout_minutes = s.workout_minutes - w.minutes,
+    s.workout_sessions = s.workout_sessions - w.sessions,
+    s.calories_burned = s.calories_burned - w.calories;
+DELETE FROM workout_logs WHERE exercise_type = 'loadtest-ingest';"
+
+echo
+printf '%-8s %12s %12s\n' mode 'rows/s' 'p95 ms'
+for mode in single batch; do
+    summary="${DIR}/summary-${mode}.json"
+    printf '%-8s %12s %12s\n' "${mode}" \
+        "$(grep -A3 '"rows_inserted"' "${summary}" | grep '"rate"' | head -1 | tr -dc '0-9.')" \
+        "$(grep -A8 '"http_req_duration"' "${summary}" | grep '"p(95)"' | head -1 | tr -dc '0-9.')"
+done
@@ -0,0 +1,39 @@
+// k6 load test for POST /api/auth/login.
+//   k6 run -e USERS=100000 loadtest/login/login.js
+// USERS must match the @users value the database was seeded with.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERS = parseInt(__ENV.USERS || '1000', 10);
+
+export const options = {
+    scenarios: {
+        login: {
+            executor: 'constant-arrival-rate',
+            rate: parseInt(__ENV.RATE || '200', 10),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '1m',
+            preAllocatedVUs: 50,
+            maxVUs: 200,
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        // dominated by the BCrypt check (constant per login);
+        // should not move as USERS grows from 1k to 1M
+        'http_req_duration{scenario:login}': ['p(95)<250'],
+    },
+};
+
+export default function () {
+    const n = 1 + Math.floor(Math.random() * USERS);
+    // mixed case on purpose: the lookup must be case-insensitive
+    const email = n % 2 === 0 ? `loadtest-user-${n}@example.com` : `LoadTest-User-${n}@Example.com`;
+
+    const res = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ email, password: 'loadtest' }),
+        { headers: { 'Content-Type': 'application/json' } });
+
+    check(res, { 'logged in': (r) => r.status === 200 });
+}
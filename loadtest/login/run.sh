@@ -0,0 +1,21 @@
+#!/usr/bin/env bash
+# Login latency as the user table grows: seeds 1k, 10k, 100k and 1M accounts in
+# turn and runs the k6 scenario after each step. The backend must be running.
+#   MYSQL="mysql -uroot -pRoot@123 wellnestdb" ./loadtest/login/run.sh
+set -euo pipefail
+
+MYSQL=${MYSQL:-"mysql -uroot -p wellnestdb"}
+DIR=$(cd "$(dirname "$0")" && pwd)
+
+for users in 1000 10000 100000 1000000; do
+    echo "=== ${users} users ==="
+    $MYSQL -e "SET @users = ${users}; SOURCE ${DIR}/seed-users.sql;"
+    k6 run --quiet -e USERS="${users}" --summary-export "${DIR}/summary-${users}.json" "${DIR}/login.js"
+done
+
+echo
+echo "p95 login latency (ms) by user count:"
+for users in 1000 10000 100000 1000000; do
+    printf '%8s  %s\n' "${users}" \
+        "$(grep -A8 '"http_req_duration' "${DIR}/summary-${users}.json" | grep '"p(95)"' | head -1 | tr -dc '0-9.')"
+done
@@ -0,0 +1,28 @@
+-- Seeds synthetic accounts for the login load test.
+--   mysql -uroot -p wellnestdb -e "SET @users = 100000; SOURCE loadtest/login/seed-users.sql;"
+-- Accounts are loadtest-user-<n>@example.com / loadtest, n = 1..@users.
+-- Re-running with a larger @users only adds the missing rows.
+
+SET @users = COALESCE(@users, 1000);
+
+DROP TEMPORARY TABLE IF EXISTS loadtest_digits;
+CREATE TEMPORARY TABLE loadtest_digits (d INT PRIMARY KEY);
+INSERT INTO loadtest_digits VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9);
+
+-- Uses the unique index on email_normalized to skip accounts that already exist
+INSERT IGNORE INTO users (full_name, email, email_normalized, password, role)
+SELECT CONCAT('Load Test ', n),
+       CONCAT('LoadTest-User-', n, '@example.com'),
+       CONCAT('loadtest-user-', n, '@example.com'),
+       'loadtest',
+       'USER'
+FROM (
+    SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d + 10000 * f.d + 100000 * g.d + 1 AS n
+    FROM loadtest_digits a, loadtest_digits b, loadtest_digits c,
+         loadtest_digits e, loadtest_digits f, loadtest_digits g
+) numbers
+WHERE n <= @users;
+
+DROP TEMPORARY TABLE loadtest_digits;
+
+SELECT COUNT(*) AS loadtest_users FROM users WHERE email_normalized LIKE 'loadtest-user-%';
@@ -0,0 +1,97 @@
+// k6 mixed workload for comparing platform and virtual threads.
+//   k6 run -e USERS=1000 loadtest/threads/mixed.js
+// Uses the loadtest-user-<n> accounts from loadtest/login/seed-users.sql.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERS = parseInt(__ENV.USERS || '1000', 10);
+const RATE = parseInt(__ENV.RATE || '300', 10);
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+function scenario(exec, share) {
+    return {
+        executor: 'constant-arrival-rate',
+        exec,
+        rate: Math.max(1, Math.round(RATE * share)),
+        timeUnit: '1s',
+        duration: __ENV.DURATION || '2m',
+        preAllocatedVUs: 50,
+        maxVUs: 400,
+    };
+}
+
+export const options = {
+    scenarios: {
+        // read-heavy, like the dashboard pages
+        timeline: scenario('timeline', 0.35),
+        dashboard: scenario('dashboard', 0.25),
+        range: scenario('range', 0.15),
+        workouts: scenario('logWorkout', 0.15),
+        login: scenario('login', 0.10),
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+// user ids of the seeded accounts, looked up once through the login endpoint
+export function setup() {
+    const ids = [];
+    for (let n = 1; n <= Math.min(USERS, 50); n++) {
+        const res = http.post(`${BASE_URL}/api/auth/login`,
+            JSON.stringify({ email: `loadtest-user-${n}@example.com`, password: 'loadtest' }), JSON_HEADERS);
+        if (res.status === 200 && res.json('userId')) {
+            ids.push(res.json('userId'));
+        }
+    }
+    if (ids.length === 0) {
+        throw new Error('no seeded accounts could log in; run loadtest/login/seed-users.sql first');
+    }
+    return { ids };
+}
+
+function pick(ids) {
+    return ids[Math.floor(Math.random() * ids.length)];
+}
+
+function isoDate(daysAgo) {
+    const d = new Date(Date.now() - daysAgo * 86400000);
+    return d.toISOString().slice(0, 10);
+}
+
+export function timeline(data) {
+    const res = http.get(`${BASE_URL}/api/tracker/${pick(data.ids)}/timeline?start=${isoDate(30)}&end=${isoDate(0)}`,
+        { tags: { name: 'timeline' } });
+    check(res, { 'timeline ok': (r) => r.status === 200 });
+}
+
+export function dashboard(data) {
+    const res = http.get(`${BASE_URL}/api/tracker/analytics/${pick(data.ids)}/dashboard`,
+        { tags: { name: 'dashboard' } });
+    check(res, { 'dashboard ok': (r) => r.status === 200 });
+}
+
+export function range(data) {
+    const res = http.get(`${BASE_URL}/api/tracker/workouts/${pick(data.ids)}/range?start=${isoDate(90)}&end=${isoDate(0)}&shape=compact`,
+        { tags: { name: 'range' } });
+    check(res, { 'range ok': (r) => r.status === 200 });
+}
+
+export function logWorkout(data) {
+    const res = http.post(`${BASE_URL}/api/tracker/workouts`, JSON.stringify({
+        userId: pick(data.ids),
+        exerciseType: 'Running',
+        durationMinutes: 30,
+        caloriesBurned: 250,
+    }), Object.assign({ tags: { name: 'workouts' } }, JSON_HEADERS));
+    check(res, { 'workout logged': (r) => r.status === 200 });
+}
+
+export function login() {
+    const n = 1 + Math.floor(Math.random() * USERS);
+    const res = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ email: `loadtest-user-${n}@example.com`, password: 'loadtest' }),
+        Object.assign({ tags: { name: 'login' } }, JSON_HEADERS));
+    check(res, { 'logged in': (r) => r.status === 200 });
+}
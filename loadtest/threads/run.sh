@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Platform vs virtual threads under the same mixed workload. Starts the backend
+# twice (spring.threads.virtual.enabled=false, then true), runs mixed.js against
+# each and prints throughput and p99 side by side. Needs a Java 21+ runtime,
+# MySQL, and the login accounts seeded (loadtest/login/seed-users.sql). The
+# pinning report needs an admin login (ADMIN_EMAIL / ADMIN_PASSWORD, default:
+# the seeded admin account).
+#   ./loadtest/threads/run.sh
+set -euo pipefail
+
+DIR=$(cd "$(dirname "$0")" && pwd)
+ROOT=$(cd "${DIR}/../.." && pwd)
+BASE_URL=${BASE_URL:-http://localhost:8080}
+ADMIN_EMAIL=${ADMIN_EMAIL:-admin@wellnest.com}
+ADMIN_PASSWORD=${ADMIN_PASSWORD:-admin123}
+
+(cd "${ROOT}" && ./mvnw -q -DskipTests package)
+JAR=$(ls "${ROOT}"/target/wellnest-*.jar | grep -v original | head -1)
+
+for mode in platform virtual; do
+    virtual=false
+    [ "${mode}" = virtual ] && virtual=true
+    echo "=== ${mode} threads ==="
+    java -jar "${JAR}" --spring.threads.virtual.enabled=${virtual} \
+        --wellnest.rate-limit.enabled=false --logging.level.root=WARN &
+    pid=$!
+    trap 'kill ${pid} 2>/dev/null || true' EXIT
+    until curl -s -o /dev/null "${BASE_URL}/actuator/health"; do sleep 1; done
+
+    k6 run --quiet --summary-export "${DIR}/summary-${mode}.json" "${DIR}/mixed.js" || true
+    token=$(curl -s -X POST "${BASE_URL}/api/auth/login" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"${ADMIN_EMAIL}\",\"password\":\"${ADMIN_PASSWORD}\"}" \
+        | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+    curl -s -H "Authorization: Bearer ${token}" "${BASE_URL}/api/admin/virtual-threads" > "${DIR}/pinning-${mode}.json"
+
+    kill ${pid}
+    wait ${pid} 2>/dev/null || true
+done
+
+echo
+printf '%-10s %12s %10s %10s\n' mode 'req/s' 'p95 ms' 'p99 ms'
+for mode in platform virtual; do
+    summary="${DIR}/summary-${mode}.json"
+    printf '%-10s %12s %10s %10s\n' "${mode}" \
+        "$(grep -A3 '"http_reqs"' "${summary}" | grep '"rate"' | head -1 | tr -dc '0-9.')" \
+        "$(grep -A8 '"http_req_duration"' "${summary}" | grep '"p(95)"' | head -1 | tr -dc '0-9.')" \
+        "$(grep -A8 '"http_req_duration"' "${summary}" | grep '"p(99)"' | head -1 | tr -dc '0-9.')"
+done
+echo
+echo "Pinning report (virtual run): ${DIR}/pinning-virtual.json"
@@ -0,0 +1,64 @@
+package com.wellnest.wellnest.dto;
+
+import com.wellnest.wellnest.model.WorkoutLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracker write binding: the old Map<String, Object> payload with toString()
+ * parsing per field versus binding straight to the typed request record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class RequestBindingBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private static final byte[] BODY = ("{\"userId\":42,\"exerciseType\":\"Running\",\"durationMinutes\":45,"
+            + "\"caloriesBurned\":380,\"logDate\":\"2025-06-30\",\"logTime\":\"07:30:00\"}").getBytes();
+
+    private JsonMapper mapper;
+
+    @Setup
+    public void setUp() {
+        mapper = JsonMapper.builder().build();
+    }
+
+    @Benchmark
+    public WorkoutLog mapPayload() {
+        Map<String, Object> payload = mapper.readValue(BODY, MAP_TYPE);
+
+        WorkoutLog log = new WorkoutLog();
+        log.setUserId(Long.valueOf(payload.get("userId").toString()));
+        log.setExerciseType((String) payload.get("exerciseType"));
+        log.setDurationMinutes(payload.get("durationMinutes") != null
+                ? Integer.valueOf(payload.get("durationMinutes").toString()) : null);
+        log.setCaloriesBurned(payload.get("caloriesBurned") != null
+                ? Integer.valueOf(payload.get("caloriesBurned").toString()) : null);
+        log.setLogDate(payload.get("logDate") != null
+                ? LocalDate.parse(payload.get("logDate").toString()) : LocalDate.now());
+        log.setLogTime(payload.get("logTime") != null
+                ? LocalTime.parse(payload.get("logTime").toString()) : LocalTime.now());
+        return log;
+    }
+
+    @Benchmark
+    public WorkoutLog typedRecord() {
+        return mapper.readValue(BODY, WorkoutLogRequest.class).toEntity();
+    }
+}
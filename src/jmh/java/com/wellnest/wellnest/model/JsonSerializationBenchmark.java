@@ -0,0 +1,97 @@
+package com.wellnest.wellnest.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the entity lists the range, timeline and blog
+ * endpoints return. Dataset size: -p size=...
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int size;
+
+    private JsonMapper mapper;
+    private List<WorkoutLog> workouts;
+    private List<MealLog> meals;
+    private List<BlogPost> posts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = JsonMapper.builder().build();
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+
+        workouts = new ArrayList<>(size);
+        meals = new ArrayList<>(size);
+        posts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            LocalDate day = start.plusDays(i % 365);
+
+            WorkoutLog w = new WorkoutLog();
+            w.setId((long) i);
+            w.setUserId(1L);
+            w.setLogDate(day);
+            w.setLogTime(LocalTime.of(7, 30));
+            w.setExerciseType("Running");
+            w.setDurationMinutes(10 + random.nextInt(80));
+            w.setCaloriesBurned(50 + random.nextInt(600));
+            workouts.add(w);
+
+            MealLog m = new MealLog();
+            m.setId((long) i);
+            m.setUserId(1L);
+            m.setLogDate(day);
+            m.setMealTime(LocalTime.of(12, 15));
+            m.setMealType("Lunch");
+            m.setDescription("Chicken salad with quinoa and olive oil");
+            m.setCalories(100 + random.nextInt(900));
+            m.setProtein(random.nextInt(60));
+            m.setCarbs(random.nextInt(120));
+            meals.add(m);
+
+            BlogPost p = new BlogPost("Post " + i, "Lorem ipsum dolor sit amet. ".repeat(40),
+                    "Trainer " + (i % 20), (long) (i % 20), "Fitness", "ARTICLE", "/uploads/cover" + i + ".jpg");
+            p.setId((long) i);
+            p.setCreatedAt(LocalDateTime.of(day, LocalTime.NOON));
+            posts.add(p);
+        }
+    }
+
+    @Benchmark
+    public byte[] workoutLogs() {
+        return mapper.writeValueAsBytes(workouts);
+    }
+
+    @Benchmark
+    public byte[] mealLogs() {
+        return mapper.writeValueAsBytes(meals);
+    }
+
+    @Benchmark
+    public byte[] blogPosts() {
+        return mapper.writeValueAsBytes(posts);
+    }
+}
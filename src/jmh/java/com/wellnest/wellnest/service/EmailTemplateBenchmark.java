@@ -0,0 +1,37 @@
+package com.wellnest.wellnest.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of the password-reset OTP email body (no mail sender involved).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private EmailService emailService;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        emailService = new EmailService();
+    }
+
+    @Benchmark
+    public String otpEmailHtml() {
+        // a different OTP per call, like real traffic
+        counter = (counter + 1) % 1_000_000;
+        return emailService.createOtpEmailHtml(String.format("%06d", counter));
+    }
+}
@@ -0,0 +1,224 @@
+package com.wellnest.wellnest.service;
+
+import com.wellnest.wellnest.model.DailySummary;
+import com.wellnest.wellnest.model.MealLog;
+import com.wellnest.wellnest.model.WaterSleepLog;
+import com.wellnest.wellnest.model.WorkoutLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregation paths behind the tracker analytics endpoints.
+ *
+ * The rawLogs* benchmarks replay the per-request aggregation the controller
+ * used to do over every log in the window (7-day map building, stream sums
+ * and averages); the others measure what {@link TrackerService} does today
+ * with the daily rollup and the SQL-bucketed rows.
+ *
+ * Dataset size: -p entriesPerDay=... -p days=...
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class TrackerAnalyticsBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int entriesPerDay;
+
+    // length of the bucketed range (mergeBuckets gets one row per day)
+    @Param({"7", "365"})
+    public int days;
+
+    private LocalDate today;
+    private LocalDate weekStart;
+
+    private List<WorkoutLog> workouts;
+    private List<MealLog> meals;
+    private List<WaterSleepLog> waterSleepLogs;
+    private List<DailySummary> summaries;
+
+    private List<Object[]> workoutRows;
+    private List<Object[]> mealRows;
+    private List<Object[]> waterSleepRows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        today = LocalDate.of(2025, 6, 30);
+        weekStart = today.minusDays(6);
+
+        workouts = new ArrayList<>();
+        meals = new ArrayList<>();
+        waterSleepLogs = new ArrayList<>();
+        for (int d = 0; d < 7; d++) {
+            LocalDate day = weekStart.plusDays(d);
+            for (int i = 0; i < entriesPerDay; i++) {
+                WorkoutLog w = new WorkoutLog();
+                w.setUserId(1L);
+                w.setLogDate(day);
+                w.setExerciseType("Running");
+                w.setDurationMinutes(random.nextInt(10) == 0 ? null : 10 + random.nextInt(80));
+                w.setCaloriesBurned(random.nextInt(10) == 0 ? null : 50 + random.nextInt(600));
+                workouts.add(w);
+
+                MealLog m = new MealLog();
+                m.setUserId(1L);
+                m.setLogDate(day);
+                m.setMealType("Lunch");
+                m.setCalories(random.nextInt(10) == 0 ? null : 100 + random.nextInt(900));
+                m.setProtein(random.nextInt(60));
+                m.setCarbs(random.nextInt(120));
+                meals.add(m);
+
+                WaterSleepLog ws = new WaterSleepLog();
+                ws.setUserId(1L);
+                ws.setLogDate(day);
+                ws.setWaterIntakeLiters(random.nextDouble() * 3);
+                ws.setSleepHours(4 + random.nextDouble() * 5);
+                waterSleepLogs.add(ws);
+            }
+        }
+
+        // the same week, already folded into one rollup row per day
+        Map<LocalDate, DailySummary> byDay = new HashMap<>();
+        for (WorkoutLog w : workouts) {
+            DailySummary s = summary(byDay, w.getLogDate());
+            s.setWorkoutMinutes(s.getWorkoutMinutes() + TrackerService.orZero(w.getDurationMinutes()));
+            s.setWorkoutSessions(s.getWorkoutSessions() + 1);
+            s.setCaloriesBurned(s.getCaloriesBurned() + TrackerService.orZero(w.getCaloriesBurned()));
+        }
+        for (MealLog m : meals) {
+            DailySummary s = summary(byDay, m.getLogDate());
+            s.setCaloriesEaten(s.getCaloriesEaten() + TrackerService.orZero(m.getCalories()));
+        }
+        for (WaterSleepLog ws : waterSleepLogs) {
+            DailySummary s = summary(byDay, ws.getLogDate());
+            s.setWaterLiters(s.getWaterLiters() + ws.getWaterIntakeLiters());
+            s.setSleepHours(s.getSleepHours() + ws.getSleepHours());
+            s.setWaterSleepEntries(s.getWaterSleepEntries() + 1);
+        }
+        summaries = new ArrayList<>(byDay.values());
+
+        // rows shaped like the native sumByBucket results (bucket=day)
+        workoutRows = new ArrayList<>();
+        mealRows = new ArrayList<>();
+        waterSleepRows = new ArrayList<>();
+        LocalDate rangeStart = today.minusDays(days - 1);
+        for (int d = 0; d < days; d++) {
+            Date bucket = Date.valueOf(rangeStart.plusDays(d));
+            workoutRows.add(new Object[]{bucket, (long) entriesPerDay, 45L * entriesPerDay, 300L * entriesPerDay});
+            mealRows.add(new Object[]{bucket, 500L * entriesPerDay, 30L * entriesPerDay, 60L * entriesPerDay});
+            waterSleepRows.add(new Object[]{bucket, (long) entriesPerDay, 1.5 * entriesPerDay, 7.0 * entriesPerDay});
+        }
+    }
+
+    private static DailySummary summary(Map<LocalDate, DailySummary> byDay, LocalDate day) {
+        return byDay.computeIfAbsent(day, k -> {
+            DailySummary s = new DailySummary();
+            s.setUserId(1L);
+            s.setSummaryDate(k);
+            return s;
+        });
+    }
+
+    // ========= ROLLUP (current) =========
+
+    @Benchmark
+    public Map<String, Object> dashboardFromSummaries() {
+        return TrackerService.buildDashboard(weekStart, summaries);
+    }
+
+    @Benchmark
+    public Map<String, Object> weeklyFromSummaries() {
+        return TrackerService.buildWeekly(weekStart, today, summaries);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> mergeBuckets() {
+        return TrackerService.mergeBuckets(workoutRows, mealRows, waterSleepRows);
+    }
+
+    // ========= RAW LOGS (baseline) =========
+
+    @Benchmark
+    public Map<String, Object> rawLogsDashboard() {
+        Map<LocalDate, Integer> workoutMap = new HashMap<>();
+        Map<LocalDate, Integer> calorieMap = new HashMap<>();
+        for (int i = 0; i < 7; i++) {
+            LocalDate d = weekStart.plusDays(i);
+            workoutMap.put(d, 0);
+            calorieMap.put(d, 0);
+        }
+        for (WorkoutLog w : workouts) {
+            LocalDate d = w.getLogDate();
+            if (!d.isBefore(weekStart) && !d.isAfter(today)) {
+                int duration = w.getDurationMinutes() != null ? w.getDurationMinutes() : 0;
+                int cals = w.getCaloriesBurned() != null ? w.getCaloriesBurned() : 0;
+                workoutMap.put(d, workoutMap.get(d) + duration);
+                calorieMap.put(d, calorieMap.get(d) + cals);
+            }
+        }
+
+        int[] workoutArr = new int[7];
+        int[] calorieArr = new int[7];
+        String[] labels = new String[7];
+        for (int i = 0; i < 7; i++) {
+            LocalDate d = weekStart.plusDays(i);
+            workoutArr[i] = workoutMap.get(d);
+            calorieArr[i] = calorieMap.get(d);
+            labels[i] = d.getDayOfWeek().toString().substring(0, 3);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("labels", labels);
+        result.put("workoutData", workoutArr);
+        result.put("calorieData", calorieArr);
+        result.put("todayCalories", calorieMap.get(today));
+        return result;
+    }
+
+    @Benchmark
+    public Map<String, Object> rawLogsWeekly() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("startDate", weekStart);
+        result.put("endDate", today);
+        result.put("totalWorkoutMinutes", workouts.stream()
+                .filter(w -> w.getDurationMinutes() != null)
+                .mapToInt(WorkoutLog::getDurationMinutes)
+                .sum());
+        result.put("totalWorkoutSessions", workouts.size());
+        result.put("totalMealCalories", meals.stream()
+                .filter(m -> m.getCalories() != null)
+                .mapToInt(MealLog::getCalories)
+                .sum());
+        result.put("avgWaterIntake", waterSleepLogs.stream()
+                .filter(ws -> ws.getWaterIntakeLiters() != null)
+                .mapToDouble(WaterSleepLog::getWaterIntakeLiters)
+                .average()
+                .orElse(0.0));
+        result.put("avgSleepHours", waterSleepLogs.stream()
+                .filter(ws -> ws.getSleepHours() != null)
+                .mapToDouble(WaterSleepLog::getSleepHours)
+                .average()
+                .orElse(0.0));
+        return result;
+    }
+}
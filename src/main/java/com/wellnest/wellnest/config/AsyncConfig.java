@@ -0,0 +1,81 @@
+package com.wellnest.wellnest.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    // Bounded pool for running independent repository reads side by side.
+    // When saturated the request thread runs the query itself (CallerRuns),
+    // which degrades to the old sequential behaviour instead of failing.
+    //
+    // With spring.threads.virtual.enabled=true (Java 21+) each read gets its own
+    // virtual thread instead; the concurrency limit still caps how many reads
+    // compete for connections at once (callers wait when it is reached).
+    // Either way the reads count towards the calling request's SQL metrics.
+    @Bean(name = "trackerQueryExecutor")
+    public AsyncTaskExecutor trackerQueryExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("tracker-query-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(32);
+            executor.setTaskDecorator(SqlTimingDataSource::propagate);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("tracker-query-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(SqlTimingDataSource::propagate);
+        executor.initialize();
+        return executor;
+    }
+
+    // Password hashing is CPU-bound (BCrypt), so it gets its own small pool sized
+    // to the cores. A login burst queues here instead of occupying Tomcat threads;
+    // when the queue is full new attempts are rejected (503) rather than piling up.
+    // Stays on platform threads in virtual-thread mode: more threads would not
+    // make CPU-bound work faster.
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${wellnest.auth.hash-threads:0}") int threads,
+            @Value("${wellnest.auth.hash-queue-capacity:200}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Writes chat events to open SSE streams (see MessageStreamService). At most
+    // one task per connection is queued at a time, so the queue bounds the number
+    // of connections waiting for a write; past that a stream is dropped and the
+    // client reconnects and replays.
+    @Bean(name = "messagePushExecutor")
+    public ThreadPoolTaskExecutor messagePushExecutor(
+            @Value("${wellnest.messages.stream.push-threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("message-push-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,126 @@
+package com.wellnest.wellnest.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per controller method: request latency, and how many SQL statements each
+ * request ran and how long they took (from {@link SqlTimingDataSource}).
+ *
+ * Meters are tagged with controller and method only, so there is exactly one
+ * timer per handler method and its percentiles are directly usable. Percentiles
+ * (p50/p95/p99) cover a rolling two-minute window. Requests not served by a
+ * controller (static files, 404s) are not recorded.
+ *
+ * Handlers that hold the response open for a long time (the chat SSE stream,
+ * export downloads) call {@link #markStreaming}; their duration goes to a
+ * separate "wellnest.http.streams" timer so it does not swamp the request
+ * percentiles.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    public static final String REQUESTS = "wellnest.http.requests";
+    public static final String SQL_STATEMENTS = "wellnest.http.sql.statements";
+    public static final String SQL_TIME = "wellnest.http.sql.time";
+    public static final String STREAMS = "wellnest.http.streams";
+
+    private static final String STREAMING_ATTRIBUTE = RequestMetricsFilter.class.getName() + ".streaming";
+
+    private final MeterRegistry registry;
+
+    public RequestMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        SqlTimingDataSource.RequestSqlStats sql = SqlTimingDataSource.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlTimingDataSource.end();
+            if (request.isAsyncStarted()) {
+                // CompletableFuture / streaming responses: record when they complete
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, start, sql);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, start, sql);
+            }
+        }
+    }
+
+    // For handlers whose response stays open (streams, downloads): timed as a stream, not a request
+    public static void markStreaming(HttpServletRequest request) {
+        request.setAttribute(STREAMING_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    private void record(HttpServletRequest request, long start, SqlTimingDataSource.RequestSqlStats sql) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return;
+        }
+        String controller = handler.getBeanType().getSimpleName();
+        String method = handler.getMethod().getName();
+
+        if (Boolean.TRUE.equals(request.getAttribute(STREAMING_ATTRIBUTE))) {
+            Timer.builder(STREAMS)
+                    .description("Duration of streaming responses per controller method")
+                    .tags("controller", controller, "method", method)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } else {
+            Timer.builder(REQUESTS)
+                    .description("Request latency per controller method")
+                    .tags("controller", controller, "method", method)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        DistributionSummary.builder(SQL_STATEMENTS)
+                .description("SQL statements per request")
+                .tags("controller", controller, "method", method)
+                .register(registry)
+                .record(sql.getCount());
+        Timer.builder(SQL_TIME)
+                .description("Time spent in SQL statements per request")
+                .tags("controller", controller, "method", method)
+                .register(registry)
+                .record(sql.getNanos(), TimeUnit.NANOSECONDS);
+    }
+}
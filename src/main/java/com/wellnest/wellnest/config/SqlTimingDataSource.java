@@ -0,0 +1,256 @@
+package com.wellnest.wellnest.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wraps the application DataSource and times every statement execution
+ * (execute, executeQuery, executeUpdate, executeBatch, ...).
+ *
+ * Each execution is recorded in the global "wellnest.sql.statements" timer
+ * and, when the calling thread is serving a request, added to that request's
+ * {@link RequestSqlStats} (see {@link RequestMetricsFilter}). Executor tasks
+ * started from a request share its stats through {@link #propagate(Runnable)}.
+ *
+ * Covers Hibernate and JdbcTemplate alike since both go through the same pool.
+ * unwrap() still reaches the Hikari pool underneath, so its metrics keep working.
+ *
+ * The proxies stand in for the real objects everywhere: each implements every
+ * public interface of its target, Statement.getConnection() and
+ * ResultSet.getStatement() hand back the proxies rather than what they wrap,
+ * and unwrap()/isWrapperFor() answer for the proxy first. Hibernate tracks
+ * statements and result sets by identity, so it must never see both.
+ */
+public class SqlTimingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private volatile Timer statements;
+
+    public SqlTimingDataSource(DataSource target, ObjectProvider<MeterRegistry> registryProvider) {
+        super(target);
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    // ========= PER-REQUEST STATS =========
+
+    /** Statement count and time of one request, shared with the tasks it starts. */
+    public static final class RequestSqlStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getNanos() {
+            return nanos.sum();
+        }
+    }
+
+    public static RequestSqlStats begin() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    // TaskDecorator for executors that run queries on behalf of a request
+    public static Runnable propagate(Runnable task) {
+        RequestSqlStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            RequestSqlStats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) CURRENT.set(previous);
+                else CURRENT.remove();
+            }
+        };
+    }
+
+    // ========= JDBC PROXIES =========
+
+    // public interfaces of a JDBC class, vendor ones included, so instanceof and casts still work
+    private static final ClassValue<Class<?>[]> PROXY_INTERFACES = new ClassValue<>() {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type) {
+            Set<Class<?>> interfaces = new LinkedHashSet<>();
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                collectInterfaces(c, interfaces);
+            }
+            return interfaces.toArray(new Class<?>[0]);
+        }
+    };
+
+    private static void collectInterfaces(Class<?> type, Set<Class<?>> into) {
+        for (Class<?> i : type.getInterfaces()) {
+            if (Modifier.isPublic(i.getModifiers()) && into.add(i)) {
+                collectInterfaces(i, into);
+            }
+        }
+    }
+
+    private static Object proxy(Object target, InvocationHandler handler) {
+        return Proxy.newProxyInstance(target.getClass().getClassLoader(),
+                PROXY_INTERFACES.get(target.getClass()), handler);
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) proxy(connection, new ConnectionHandler(connection));
+    }
+
+    private void record(long nanos) {
+        Timer timer = statements;
+        if (timer == null) {
+            MeterRegistry registry = registryProvider.getIfAvailable();
+            if (registry == null) return;
+            timer = Timer.builder("wellnest.sql.statements")
+                    .description("JDBC statement executions")
+                    .register(registry);
+            statements = timer;
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+
+        RequestSqlStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.count.increment();
+            stats.nanos.add(nanos);
+        }
+    }
+
+    // equals/hashCode answer for the proxy itself: Hibernate keeps statements in hash maps.
+    // unwrap/isWrapperFor return the proxy when it already is what was asked for.
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        int params = method.getParameterCount();
+        if (name.equals("equals") && params == 1) {
+            return proxy == args[0];
+        }
+        if (name.equals("hashCode") && params == 0) {
+            return System.identityHashCode(proxy);
+        }
+        if (name.equals("unwrap") && params == 1 && ((Class<?>) args[0]).isInstance(proxy)) {
+            return proxy;
+        }
+        if (name.equals("isWrapperFor") && params == 1 && ((Class<?>) args[0]).isInstance(proxy)) {
+            return true;
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlTimingDataSource.invoke(proxy, target, method, args);
+            if (result instanceof Statement statement) {
+                return proxy(statement, new StatementHandler(statement, (Connection) proxy));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final Connection connection;
+
+        // the same ResultSet (e.g. getResultSet() called twice) keeps the same proxy
+        private ResultSet lastResultSet;
+        private ResultSet lastResultSetProxy;
+
+        StatementHandler(Statement target, Connection connection) {
+            this.target = target;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("getConnection") && method.getParameterCount() == 0) {
+                return connection;
+            }
+            Object result;
+            if (!method.getName().startsWith("execute")) {
+                result = SqlTimingDataSource.invoke(proxy, target, method, args);
+            } else {
+                long start = System.nanoTime();
+                try {
+                    result = SqlTimingDataSource.invoke(proxy, target, method, args);
+                } finally {
+                    record(System.nanoTime() - start);
+                }
+            }
+            // executeQuery, getResultSet, getGeneratedKeys, ...
+            if (result instanceof ResultSet resultSet) {
+                if (resultSet != lastResultSet) {
+                    lastResultSetProxy = (ResultSet) proxy(resultSet, new ResultSetHandler(resultSet, (Statement) proxy));
+                    lastResultSet = resultSet;
+                }
+                return lastResultSetProxy;
+            }
+            return result;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final Statement statement;
+
+        ResultSetHandler(ResultSet target, Statement statement) {
+            this.target = target;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("getStatement") && method.getParameterCount() == 0) {
+                return statement;
+            }
+            return SqlTimingDataSource.invoke(proxy, target, method, args);
+        }
+    }
+}
@@ -4,8 +4,19 @@ import com.wellnest.wellnest.model.User;
 import com.wellnest.wellnest.model.Trainer;
 import com.wellnest.wellnest.model.WorkoutLog;
 import com.wellnest.wellnest.model.MealLog;
+import com.wellnest.wellnest.config.TokenAuthFilter;
 import com.wellnest.wellnest.repository.*;
+import com.wellnest.wellnest.service.AnalyticsCache;
+import com.wellnest.wellnest.service.EmailService;
+import com.wellnest.wellnest.service.MessageStreamService;
+import com.wellnest.wellnest.service.MetricsReport;
+import com.wellnest.wellnest.service.PasswordService;
+import com.wellnest.wellnest.service.ProfileCache;
+import com.wellnest.wellnest.service.RateLimiter;
+import com.wellnest.wellnest.service.VirtualThreadDiagnostics;
 import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -33,6 +44,30 @@ public class AdminController {
     @Autowired
     private BlogPostRepository blogPostRepository;
 
+    @Autowired
+    private AnalyticsCache analyticsCache;
+
+    @Autowired
+    private ProfileCache profileCache;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private MessageStreamService messageStreamService;
+
+    @Autowired
+    private VirtualThreadDiagnostics virtualThreadDiagnostics;
+
+    @Autowired
+    private MetricsReport metricsReport;
+
     @GetMapping("/stats")
     public ResponseEntity<?> getPlatformStats() {
         Map<String, Object> stats = new HashMap<>();
@@ -44,6 +79,75 @@ public class AdminController {
         return ResponseEntity.ok(stats);
     }
 
+    // ========= OPERATIONAL STATS =========
+    // Each needs an ADMIN access token (Authorization: Bearer ...) even while enforcement is off.
+
+    // Hit/miss/eviction counters of the analytics and profile caches
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> getCacheStats(HttpServletRequest request) {
+        if (!isAdmin(request)) {
+            return adminTokenRequired();
+        }
+        return ResponseEntity.ok(Map.of(
+                "analytics", analyticsCache.stats(),
+                "profiles", profileCache.stats()));
+    }
+
+    // Password-hash pool (queue depth, hash timings) and auth rate limiting (rejections)
+    @GetMapping("/auth-stats")
+    public ResponseEntity<?> getAuthStats(HttpServletRequest request) {
+        if (!isAdmin(request)) {
+            return adminTokenRequired();
+        }
+        return ResponseEntity.ok(Map.of(
+                "passwordHashing", passwordService.stats(),
+                "rateLimit", rateLimiter.stats()));
+    }
+
+    // Mail queue depth, batch send latency, retries and failures
+    @GetMapping("/email-stats")
+    public ResponseEntity<?> getEmailStats(HttpServletRequest request) {
+        if (!isAdmin(request)) {
+            return adminTokenRequired();
+        }
+        return ResponseEntity.ok(emailService.stats());
+    }
+
+    // Open chat streams, pushed/replayed messages and overflow disconnects
+    @GetMapping("/stream-stats")
+    public ResponseEntity<?> getStreamStats(HttpServletRequest request) {
+        if (!isAdmin(request)) {
+            return adminTokenRequired();
+        }
+        return ResponseEntity.ok(messageStreamService.stats());
+    }
+
+    // Virtual-thread mode status and carrier pinning events (JFR)
+    @GetMapping("/virtual-threads")
+    public ResponseEntity<?> getVirtualThreadReport(HttpServletRequest request) {
+        if (!isAdmin(request)) {
+            return adminTokenRequired();
+        }
+        return ResponseEntity.ok(virtualThreadDiagnostics.report());
+    }
+
+    // Latency percentiles and SQL cost per controller method, plus connection pool usage
+    @GetMapping("/metrics")
+    public ResponseEntity<?> getMetrics(HttpServletRequest request) {
+        if (!isAdmin(request)) {
+            return adminTokenRequired();
+        }
+        return ResponseEntity.ok(metricsReport.report());
+    }
+
+    private static boolean isAdmin(HttpServletRequest request) {
+        return "ADMIN".equalsIgnoreCase((String) request.getAttribute(TokenAuthFilter.AUTH_ROLE));
+    }
+
+    private static ResponseEntity<?> adminTokenRequired() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Admin access token required"));
+    }
+
     @GetMapping("/users")
     public List<User> getAllUsers() {
         return userRepository.findAll();
@@ -60,9 +164,7 @@ public class AdminController {
             userRepository.delete(user);
             
             // If they are a trainer, delete from trainer repo too
-            trainerRepository.findAll().stream()
-                .filter(t -> t.getContactEmail().equalsIgnoreCase(user.getEmail()))
-                .findFirst()
+            trainerRepository.findFirstByContactEmail(User.normalizeEmail(user.getEmail()))
                 .ifPresent(t -> trainerRepository.delete(t));
                 
             return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
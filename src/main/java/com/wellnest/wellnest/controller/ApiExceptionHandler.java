@@ -0,0 +1,62 @@
+package com.wellnest.wellnest.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import tools.jackson.core.JacksonException;
+
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Turns bad client input into 400s with a readable message instead of 500s
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    // @Valid request bodies: {"error": "...", "fields": {"durationMinutes": "must be greater than or equal to 0"}}
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidBody(MethodArgumentNotValidException ex) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (FieldError error : ex.getBindingResult().getFieldErrors()) {
+            fields.putIfAbsent(error.getField(), error.getDefaultMessage());
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "Invalid request");
+        body.put("fields", fields);
+        return ResponseEntity.badRequest().body(body);
+    }
+
+    // Malformed JSON or a value of the wrong type (e.g. "abc" for a number, "2024-13-01" for a date)
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, Object>> handleUnreadableBody(HttpMessageNotReadableException ex) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "Malformed request body");
+        if (ex.getMostSpecificCause() instanceof JacksonException jackson && !jackson.getPath().isEmpty()) {
+            body.put("field", fieldPath(jackson));
+        }
+        return ResponseEntity.badRequest().body(body);
+    }
+
+    // Date query parameters such as ?start=&end= that are not yyyy-MM-dd
+    @ExceptionHandler(DateTimeParseException.class)
+    public ResponseEntity<Map<String, Object>> handleBadDate(DateTimeParseException ex) {
+        return ResponseEntity.badRequest()
+                .body(Map.of("error", "Invalid date '" + ex.getParsedString() + "', expected yyyy-MM-dd"));
+    }
+
+    private static String fieldPath(JacksonException ex) {
+        StringBuilder path = new StringBuilder();
+        for (JacksonException.Reference ref : ex.getPath()) {
+            if (ref.getPropertyName() != null) {
+                if (path.length() > 0) path.append('.');
+                path.append(ref.getPropertyName());
+            } else if (ref.getIndex() >= 0) {
+                path.append('[').append(ref.getIndex()).append(']');
+            }
+        }
+        return path.toString();
+    }
+}
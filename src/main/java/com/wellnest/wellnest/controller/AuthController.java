@@ -2,44 +2,86 @@ package com.wellnest.wellnest.controller;
 
 import com.wellnest.wellnest.model.User;
 import com.wellnest.wellnest.model.Trainer;
-import com.wellnest.wellnest.model.PasswordResetToken;
 import com.wellnest.wellnest.repository.UserRepository;
 import com.wellnest.wellnest.repository.TrainerRepository;
-import com.wellnest.wellnest.repository.PasswordResetTokenRepository;
 import com.wellnest.wellnest.service.EmailService;
+import com.wellnest.wellnest.service.OtpStore;
+import com.wellnest.wellnest.service.PasswordService;
+import com.wellnest.wellnest.service.RateLimiter;
+import com.wellnest.wellnest.service.TokenService;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
+    private static final Duration OTP_TTL = Duration.ofMinutes(10);
+    private static final SecureRandom OTP_RANDOM = new SecureRandom();
+
     private final UserRepository userRepository;
     private final TrainerRepository trainerRepository;
-    private final PasswordResetTokenRepository resetTokenRepository;
+    private final OtpStore otpStore;
     private final EmailService emailService;
+    private final TokenService tokenService;
+    private final PasswordService passwordService;
+    private final RateLimiter rateLimiter;
+    // Continuations that touch the database run here, never on the password-hash
+    // pool, so a slow database cannot hold up hashing for everyone else
+    private final AsyncTaskExecutor dbExecutor;
 
     public AuthController(UserRepository userRepository, 
                          TrainerRepository trainerRepository,
-                         PasswordResetTokenRepository resetTokenRepository,
-                         EmailService emailService) {
+                         OtpStore otpStore,
+                         EmailService emailService,
+                         TokenService tokenService,
+                         PasswordService passwordService,
+                         RateLimiter rateLimiter,
+                         @Qualifier("applicationTaskExecutor") AsyncTaskExecutor dbExecutor) {
         this.userRepository = userRepository;
         this.trainerRepository = trainerRepository;
-        this.resetTokenRepository = resetTokenRepository;
+        this.otpStore = otpStore;
         this.emailService = emailService;
+        this.tokenService = tokenService;
+        this.passwordService = passwordService;
+        this.rateLimiter = rateLimiter;
+        this.dbExecutor = dbExecutor;
+    }
+
+    @PostConstruct
+    public void init() {
+        int filled = userRepository.backfillEmailNormalized();
+        if (filled > 0) {
+            log.info("Normalized email filled for {} existing users", filled);
+        }
     }
 
     // ---------------- REGISTER (used by signup.js) ----------------
+    // Hashing runs on the password-hash pool and the account is saved on dbExecutor
+    // once it completes; the Tomcat thread is released meanwhile (async request).
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody Map<String, Object> payload) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody Map<String, Object> payload) {
 
         String fullName = (String) payload.get("fullName");
         String email = (String) payload.get("email");
@@ -47,50 +89,57 @@ public class AuthController {
         String role = (String) payload.getOrDefault("role", "USER");
 
         if (email == null || password == null || fullName == null) {
-            return ResponseEntity.badRequest().body("Missing required fields");
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body("Missing required fields"));
         }
 
         // Check if email already exists
-        List<User> allUsers = userRepository.findAll();
-        boolean emailExists = allUsers.stream()
-                .anyMatch(u -> email.equalsIgnoreCase(u.getEmail()));
-
-        if (emailExists) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body("Email already registered");
+        if (userRepository.existsByEmailIgnoringCase(email)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Email already registered"));
         }
 
+        return passwordService.hash(password)
+                .<ResponseEntity<?>>thenApplyAsync(hash -> createAccount(payload, fullName, email, hash, role), dbExecutor)
+                .exceptionally(hashingFailed("Server busy, please retry", "Registration failed"));
+    }
+
+    private ResponseEntity<?> createAccount(Map<String, Object> payload, String fullName, String email,
+                                            String passwordHash, String role) {
         // Create and save user
         User user = new User();
         user.setFullName(fullName);
         user.setEmail(email);
-        user.setPassword(password);
+        user.setPassword(passwordHash);
         user.setRole(role);
 
-        // DEBUG: Log payload
-        System.out.println(">>> REGISTER PAYLOAD: " + payload);
-
         // Handle optional profile fields
         if (payload.get("age") != null) {
             try {
                 // Parse as Double first to handle "30.0" or "30" or 30, then cast to int
                 user.setAge((int) Double.parseDouble(payload.get("age").toString()));
             } catch (Exception e) {
-                System.out.println("Error parsing age: " + e);
+                log.debug("Ignoring unparseable age: {}", e.toString());
             }
         }
         if (payload.get("weight") != null) {
             try {
                 user.setWeight(Double.parseDouble(payload.get("weight").toString()));
             } catch (Exception e) {
-                 System.out.println("Error parsing weight: " + e);
+                log.debug("Ignoring unparseable weight: {}", e.toString());
             }
         }
         if (payload.get("goal") != null) {
             user.setGoal(payload.get("goal").toString());
         }
 
-        userRepository.save(user);
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // lost a race with a concurrent signup for the same address (unique index)
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Email already registered");
+        }
 
         // If Role is TRAINER, save to Trainer repository as well
         if ("TRAINER".equalsIgnoreCase(role)) {
@@ -110,9 +159,9 @@ public class AuthController {
                 trainer.setBio("Certified Trainer specialized in " + trainer.getSpecialization());
                 
                 trainerRepository.save(trainer);
-                System.out.println("Trainer profile created for: " + email);
+                log.info("Trainer profile created for {}", email);
             } catch (Exception e) {
-                System.out.println("Error creating trainer profile: " + e.getMessage());
+                log.warn("Error creating trainer profile for {}: {}", email, e.getMessage());
                 // We don't fail the whole registration if trainer profile fails, or maybe we should?
                 // For now, let's log it.
             }
@@ -127,31 +176,43 @@ public class AuthController {
     }
 
     // ---------------- LOGIN (used by login.js) ----------------
+    // The BCrypt check runs on the password-hash pool; the Tomcat thread is
+    // released while it waits (async request).
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> payload) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> payload,
+                                                      HttpServletRequest request) {
 
         String email = payload.get("email");
         String password = payload.get("password");
 
-        if (email == null || password == null) {
-            return ResponseEntity.badRequest().body("Email and password are required");
+        ResponseEntity<?> limited = rateLimited(request, "login", email);
+        if (limited != null) {
+            return CompletableFuture.completedFuture(limited);
         }
 
-        List<User> allUsers = userRepository.findAll();
-
-        User matchedUser = allUsers.stream()
-                .filter(u ->
-                        email.equalsIgnoreCase(u.getEmail()) &&
-                                password.equals(u.getPassword())
-                )
-                .findFirst()
-                .orElse(null);
-
-        if (matchedUser == null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body("Invalid email or password");
+        if (email == null || password == null) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body("Email and password are required"));
         }
 
+        User user = userRepository.findByEmailIgnoringCase(email).orElse(null);
+        String storedPassword = user != null ? user.getPassword() : null;
+
+        return passwordService.matches(password, storedPassword)
+                .<ResponseEntity<?>>thenApply(matched -> {
+                    if (!matched) {
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body("Invalid email or password");
+                    }
+                    if (passwordService.needsRehash(storedPassword)) {
+                        upgradePassword(user.getId(), password);
+                    }
+                    return ResponseEntity.ok(loginResponse(user));
+                })
+                .exceptionally(hashingFailed("Too many sign-in attempts right now, please retry", "Login failed"));
+    }
+
+    private Map<String, Object> loginResponse(User matchedUser) {
         Map<String, Object> response = new HashMap<>();
         response.put("userId", matchedUser.getId());
         response.put("role", matchedUser.getRole());
@@ -163,26 +224,52 @@ public class AuthController {
         if (matchedUser.getGoal() != null) response.put("goal", matchedUser.getGoal());
         if (matchedUser.getTrainerId() != null) response.put("trainerId", matchedUser.getTrainerId());
         
-        response.put("token", "demo-token");
+        // signed, expiring access token; send back as "Authorization: Bearer <token>"
+        response.put("token", tokenService.issue(matchedUser));
+        response.put("expiresIn", tokenService.getTtl().toSeconds());
+        return response;
+    }
 
-        return ResponseEntity.ok(response);
+    // Plaintext (pre-hashing) or old-cost row: store a fresh hash in the background.
+    // Best effort; if it fails the next login tries again.
+    private void upgradePassword(Long userId, String rawPassword) {
+        passwordService.hash(rawPassword)
+                .thenAcceptAsync(hash -> userRepository.updatePassword(userId, hash), dbExecutor)
+                .exceptionally(e -> {
+                    log.warn("Password upgrade failed for user {}", userId, e);
+                    return null;
+                });
+    }
+
+    // 503 when the password-hash pool turned the task away, 500 for anything else
+    private static Function<Throwable, ResponseEntity<?>> hashingFailed(String busyMessage, String failedMessage) {
+        return e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RejectedExecutionException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(busyMessage);
+            }
+            log.error("{}", failedMessage, cause);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(failedMessage);
+        };
     }
 
     // ---------------- FORGOT PASSWORD - Send OTP ----------------
     @PostMapping("/forgot-password")
-    public ResponseEntity<?> forgotPassword(@RequestBody Map<String, String> payload) {
+    public ResponseEntity<?> forgotPassword(@RequestBody Map<String, String> payload,
+                                            HttpServletRequest request) {
         String email = payload.get("email");
 
+        ResponseEntity<?> limited = rateLimited(request, "otp-send", email);
+        if (limited != null) {
+            return limited;
+        }
+
         if (email == null || email.trim().isEmpty()) {
             return ResponseEntity.badRequest().body("Email is required");
         }
 
         // Check if user exists
-        List<User> allUsers = userRepository.findAll();
-        User user = allUsers.stream()
-                .filter(u -> email.equalsIgnoreCase(u.getEmail()))
-                .findFirst()
-                .orElse(null);
+        User user = userRepository.findByEmailIgnoringCase(email).orElse(null);
 
         if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -190,15 +277,16 @@ public class AuthController {
         }
 
         // Generate 6-digit OTP
-        String otp = String.format("%06d", new Random().nextInt(999999));
+        String otp = String.format("%06d", OTP_RANDOM.nextInt(1_000_000));
 
-        // Create token with 10 minutes expiry
-        LocalDateTime expiryTime = LocalDateTime.now().plusMinutes(10);
-        PasswordResetToken resetToken = new PasswordResetToken(email, otp, expiryTime);
-        resetTokenRepository.save(resetToken);
+        // Valid for 10 minutes; replaces any earlier OTP for this email
+        otpStore.put(email, otp, OTP_TTL);
 
-        // Send OTP via email
-        emailService.sendOtpEmail(email, otp);
+        // Queue the OTP email; the send happens on the mail workers
+        if (!emailService.sendOtpEmail(email, otp)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Could not send the OTP right now, please retry");
+        }
 
         Map<String, String> response = new HashMap<>();
         response.put("message", "OTP sent to your email");
@@ -209,27 +297,23 @@ public class AuthController {
 
     // ---------------- VERIFY OTP ----------------
     @PostMapping("/verify-otp")
-    public ResponseEntity<?> verifyOtp(@RequestBody Map<String, String> payload) {
+    public ResponseEntity<?> verifyOtp(@RequestBody Map<String, String> payload,
+                                       HttpServletRequest request) {
         String email = payload.get("email");
         String otp = payload.get("otp");
 
-        if (email == null || otp == null) {
-            return ResponseEntity.badRequest().body("Email and OTP are required");
+        ResponseEntity<?> limited = rateLimited(request, "otp-check", email);
+        if (limited != null) {
+            return limited;
         }
 
-        // Find valid token
-        PasswordResetToken token = resetTokenRepository
-                .findByEmailAndOtpAndUsedFalse(email, otp)
-                .orElse(null);
-
-        if (token == null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body("Invalid OTP");
+        if (email == null || otp == null) {
+            return ResponseEntity.badRequest().body("Email and OTP are required");
         }
 
-        if (token.isExpired()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body("OTP has expired");
+        ResponseEntity<?> rejected = otpRejected(otpStore.check(email, otp));
+        if (rejected != null) {
+            return rejected;
         }
 
         Map<String, String> response = new HashMap<>();
@@ -240,54 +324,80 @@ public class AuthController {
     }
 
     // ---------------- RESET PASSWORD ----------------
+    // The new password is hashed on the password-hash pool (async request, as login);
+    // the OTP is used up and the hash stored on dbExecutor
     @PostMapping("/reset-password")
-    public ResponseEntity<?> resetPassword(@RequestBody Map<String, String> payload) {
+    public CompletableFuture<ResponseEntity<?>> resetPassword(@RequestBody Map<String, String> payload,
+                                           HttpServletRequest request) {
         String email = payload.get("email");
         String otp = payload.get("otp");
         String newPassword = payload.get("newPassword");
 
-        if (email == null || otp == null || newPassword == null) {
-            return ResponseEntity.badRequest().body("Email, OTP, and new password are required");
+        ResponseEntity<?> limited = rateLimited(request, "otp-check", email);
+        if (limited != null) {
+            return CompletableFuture.completedFuture(limited);
         }
 
-        // Find and validate token
-        PasswordResetToken token = resetTokenRepository
-                .findByEmailAndOtpAndUsedFalse(email, otp)
-                .orElse(null);
-
-        if (token == null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body("Invalid OTP");
+        if (email == null || otp == null || newPassword == null) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body("Email, OTP, and new password are required"));
         }
 
-        if (token.isExpired()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body("OTP has expired");
+        // Validate (without using it up yet, in case hashing is rejected below)
+        ResponseEntity<?> rejected = otpRejected(otpStore.check(email, otp));
+        if (rejected != null) {
+            return CompletableFuture.completedFuture(rejected);
         }
 
         // Find user and update password
-        List<User> allUsers = userRepository.findAll();
-        User user = allUsers.stream()
-                .filter(u -> email.equalsIgnoreCase(u.getEmail()))
-                .findFirst()
-                .orElse(null);
+        User user = userRepository.findByEmailIgnoringCase(email).orElse(null);
 
         if (user == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body("User not found");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("User not found"));
         }
 
-        // Update password
-        user.setPassword(newPassword);
-        userRepository.save(user);
+        return passwordService.hash(newPassword)
+                .<ResponseEntity<?>>thenApplyAsync(passwordHash -> {
+                    // Use up the OTP; a concurrent reset with the same OTP loses here
+                    ResponseEntity<?> used = otpRejected(otpStore.consume(email, otp));
+                    if (used != null) {
+                        return used;
+                    }
 
-        // Mark token as used
-        token.setUsed(true);
-        resetTokenRepository.save(token);
+                    user.setPassword(passwordHash);
+                    userRepository.save(user);
 
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "Password reset successful");
+                    Map<String, String> response = new HashMap<>();
+                    response.put("message", "Password reset successful");
 
-        return ResponseEntity.ok(response);
+                    return ResponseEntity.ok(response);
+                }, dbExecutor)
+                .exceptionally(hashingFailed("Server busy, please retry", "Password reset failed"));
+    }
+
+    // 429 with Retry-After when the client IP or the email is over its limit
+    private ResponseEntity<?> rateLimited(HttpServletRequest request, String purpose, String email) {
+        RateLimiter.Kind hit = rateLimiter.tryAcquire(request.getRemoteAddr(), purpose, email);
+        if (hit == null) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(rateLimiter.retryAfterSeconds(hit)))
+                .body("Too many attempts, please wait and try again");
+    }
+
+    private static ResponseEntity<?> otpRejected(OtpStore.Status status) {
+        switch (status) {
+            case VALID:
+                return null;
+            case EXPIRED:
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("OTP has expired");
+            case TOO_MANY_ATTEMPTS:
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .body("Too many wrong attempts, please request a new OTP");
+            default:
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid OTP");
+        }
     }
 }
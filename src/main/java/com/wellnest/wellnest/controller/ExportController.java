@@ -0,0 +1,75 @@
+package com.wellnest.wellnest.controller;
+
+import com.wellnest.wellnest.config.RequestMetricsFilter;
+import com.wellnest.wellnest.config.TokenAuthFilter;
+import com.wellnest.wellnest.repository.UserRepository;
+import com.wellnest.wellnest.service.ExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final ExportService exportService;
+    private final UserRepository userRepository;
+
+    public ExportController(ExportService exportService, UserRepository userRepository) {
+        this.exportService = exportService;
+        this.userRepository = userRepository;
+    }
+
+    // Full history download; the body is streamed, never built in memory
+    // e.g. /api/export/5?format=csv
+    // Only for the user themselves: TokenAuthFilter requires a token here, and it must be theirs.
+    // The declared body type must be StreamingResponseBody (not ?) for Spring to stream it,
+    // so the error responses are streaming bodies too.
+    @GetMapping("/{userId}")
+    public ResponseEntity<StreamingResponseBody> exportUserData(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) {
+        if (!userId.equals(request.getAttribute(TokenAuthFilter.AUTH_USER_ID))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!userRepository.existsById(userId)) {
+            return badRequest("User not found");
+        }
+
+        StreamingResponseBody body;
+        MediaType type;
+        if ("ndjson".equals(format)) {
+            body = out -> exportService.writeNdjson(userId, out);
+            type = NDJSON;
+        } else if ("csv".equals(format)) {
+            body = out -> exportService.writeCsv(userId, out);
+            type = CSV;
+        } else {
+            return badRequest("format must be ndjson or csv");
+        }
+
+        RequestMetricsFilter.markStreaming(request);
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"wellnest-export-" + userId + "." + format + "\"")
+                .body(body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> badRequest(String message) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(out -> out.write(message.getBytes(StandardCharsets.UTF_8)));
+    }
+}
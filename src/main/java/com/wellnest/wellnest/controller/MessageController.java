@@ -1,11 +1,27 @@
 package com.wellnest.wellnest.controller;
 
+import com.wellnest.wellnest.config.RequestMetricsFilter;
+import com.wellnest.wellnest.config.TokenAuthFilter;
+import com.wellnest.wellnest.dto.SendMessageRequest;
 import com.wellnest.wellnest.model.Message;
 import com.wellnest.wellnest.repository.MessageRepository;
+import com.wellnest.wellnest.service.ConversationService;
+import com.wellnest.wellnest.service.MessageStreamService;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -14,21 +30,155 @@ import java.util.Map;
 @CrossOrigin
 public class MessageController {
 
+    private static final Logger log = LoggerFactory.getLogger(MessageController.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int BACKFILL_BATCH_SIZE = 5000;
+
     @Autowired
     private MessageRepository messageRepository;
 
+    @Autowired
+    private MessageStreamService messageStreamService;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    // Rows from before conversation_key existed; batched so no single UPDATE holds long locks
+    @PostConstruct
+    public void init() {
+        int filled;
+        int total = 0;
+        do {
+            filled = messageRepository.backfillConversationKey(BACKFILL_BATCH_SIZE);
+            total += filled;
+        } while (filled == BACKFILL_BATCH_SIZE);
+        if (total > 0) {
+            log.info("Conversation key filled for {} existing messages", total);
+        }
+
+        int seeded = conversationService.seedConversations();
+        if (seeded > 0) {
+            log.info("Conversation status seeded from existing messages ({} rows)", seeded);
+        }
+    }
+
+    // The unread counters and inbox rows follow every send, so the body is a DTO (no
+    // client-chosen id or read flag) and the sender must be the caller.
     @PostMapping("/send")
-    public ResponseEntity<?> sendMessage(@RequestBody Message message) {
-        if (message.getSenderId() == null || message.getReceiverId() == null || message.getContent() == null) {
-            return ResponseEntity.badRequest().body("Incomplete message data");
+    public ResponseEntity<?> sendMessage(@Valid @RequestBody SendMessageRequest message,
+                                         HttpServletRequest request) {
+        if (isOtherUser(request, message.senderId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
-        messageRepository.save(message);
-        return ResponseEntity.ok(Map.of("message", "Sent"));
+        Message saved = conversationService.send(message.toEntity());
+        messageStreamService.publish(saved);
+        return ResponseEntity.ok(Map.of("message", "Sent", "id", saved.getId()));
     }
 
+    // One page of a conversation, oldest first:
+    //   no cursor     -> the most recent `limit` messages
+    //   afterId=X     -> up to `limit` messages newer than X (incremental refresh)
+    //   beforeId=X    -> up to `limit` messages older than X (scrolling back)
+    // A page shorter than `limit` means there is nothing further in that direction.
     @GetMapping("/conversation")
-    public ResponseEntity<List<Message>> getConversation(@RequestParam Long u1, @RequestParam Long u2) {
-        List<Message> conversation = messageRepository.findConversation(u1, u2);
-        return ResponseEntity.ok(conversation);
+    public ResponseEntity<?> getConversation(@RequestParam Long u1,
+                                             @RequestParam Long u2,
+                                             @RequestParam(required = false) Long afterId,
+                                             @RequestParam(required = false) Long beforeId,
+                                             @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+                                             HttpServletRequest request) {
+        // the caller must be one of the two participants
+        if (isOtherUser(request, u1) && isOtherUser(request, u2)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (afterId != null && beforeId != null) {
+            return ResponseEntity.badRequest().body("Use either afterId or beforeId, not both");
+        }
+        String key = Message.conversationKey(u1, u2);
+        Limit page = Limit.of(Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+
+        if (afterId != null) {
+            return ResponseEntity.ok(messageRepository.findConversationAfter(key, afterId, page));
+        }
+        List<Message> newestFirst = new ArrayList<>(messageRepository.findConversationBefore(
+                key, beforeId != null ? beforeId : Long.MAX_VALUE, page));
+        Collections.reverse(newestFirst);
+        return ResponseEntity.ok(newestFirst);
+    }
+
+    // ========= INBOX =========
+
+    // The user's conversations, most recent first, each with the other user, a preview
+    // of the latest message, its time and the unread count. Next page: beforeId = the
+    // lastMessageId of the last entry; a page shorter than `limit` is the end.
+    @GetMapping("/inbox")
+    public ResponseEntity<?> getInbox(@RequestParam Long userId,
+                                      @RequestParam(required = false) Long beforeId,
+                                      @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+                                      HttpServletRequest request) {
+        if (isOtherUser(request, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(conversationService.inbox(userId, beforeId, Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
+    }
+
+    // ========= UNREAD =========
+
+    // Badge counts: {"total": n, "conversations": [{"otherUserId": id, "unread": k}, ...]},
+    // or {"unread": k} for a single conversation when otherUserId is given
+    @GetMapping("/unread")
+    public ResponseEntity<?> getUnread(@RequestParam Long userId,
+                                       @RequestParam(required = false) Long otherUserId,
+                                       HttpServletRequest request) {
+        if (isOtherUser(request, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (otherUserId != null) {
+            return ResponseEntity.ok(Map.of("unread", conversationService.unreadCount(userId, otherUserId)));
+        }
+        return ResponseEntity.ok(conversationService.unreadCounts(userId));
+    }
+
+    // Marks everything userId received from otherUserId as read, up to upToId if given
+    @PostMapping("/read")
+    public ResponseEntity<?> markRead(@RequestBody Map<String, Long> payload, HttpServletRequest request) {
+        Long userId = payload.get("userId");
+        Long otherUserId = payload.get("otherUserId");
+        if (userId == null || otherUserId == null) {
+            return ResponseEntity.badRequest().body("userId and otherUserId are required");
+        }
+        if (isOtherUser(request, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        int marked = conversationService.markRead(userId, otherUserId, payload.get("upToId"));
+        return ResponseEntity.ok(Map.of("marked", marked));
+    }
+
+    // Live feed of every message the user sends or receives (Server-Sent Events).
+    // Browsers resend the last event id on reconnect; lastEventId is the same for
+    // clients that cannot set headers.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> stream(@RequestParam Long userId,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventHeader,
+                                    @RequestParam(required = false) Long lastEventId,
+                                    HttpServletRequest request) {
+        if (isOtherUser(request, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        RequestMetricsFilter.markStreaming(request);
+        SseEmitter emitter = messageStreamService.subscribe(userId,
+                lastEventHeader != null ? lastEventHeader : lastEventId);
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no") // nginx: don't buffer the stream
+                .body(emitter);
+    }
+
+    // Not the verified caller. TokenAuthFilter requires a token on every endpoint here,
+    // so a missing one is treated as a mismatch too.
+    private static boolean isOtherUser(HttpServletRequest request, Long userId) {
+        Object authUserId = request.getAttribute(TokenAuthFilter.AUTH_USER_ID);
+        return authUserId == null || !authUserId.equals(userId);
     }
 }
@@ -2,7 +2,10 @@ package com.wellnest.wellnest.controller;
 
 import com.wellnest.wellnest.model.User;
 import com.wellnest.wellnest.repository.UserRepository;
+import com.wellnest.wellnest.service.ProfileCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,13 +20,24 @@ public class ProfileController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ProfileCache profileCache;
+
+    // Served from the profile cache as pre-serialized JSON with a strong ETag.
+    // Spring answers a matching "If-None-Match" with 304 and no body.
     @GetMapping
     public ResponseEntity<?> getProfile(@RequestParam String email) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
-        if (userOpt.isPresent()) {
-            return ResponseEntity.ok(userOpt.get());
+        Optional<ProfileCache.CachedProfile> profile = profileCache.get(email);
+        if (profile.isEmpty()) {
+            return ResponseEntity.badRequest().body("User not found");
         }
-        return ResponseEntity.badRequest().body("User not found");
+
+        return ResponseEntity.ok()
+                .eTag(profile.get().etag())
+                // always revalidate, but never let shared caches keep someone's profile
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(profile.get().json());
     }
 
     @PutMapping
@@ -31,7 +45,7 @@ public class ProfileController {
         String email = (String) payload.get("email");
         if (email == null) return ResponseEntity.badRequest().body("Email required");
 
-        Optional<User> userOpt = userRepository.findByEmail(email);
+        Optional<User> userOpt = userRepository.findByEmailIgnoringCase(email);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
             
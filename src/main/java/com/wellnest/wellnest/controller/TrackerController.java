@@ -1,71 +1,95 @@
 package com.wellnest.wellnest.controller;
 
+import com.wellnest.wellnest.dto.MealLogRequest;
+import com.wellnest.wellnest.dto.MealPoint;
+import com.wellnest.wellnest.dto.SingleEntry;
+import com.wellnest.wellnest.dto.WaterSleepLogRequest;
+import com.wellnest.wellnest.dto.WaterSleepPoint;
+import com.wellnest.wellnest.dto.WorkoutLogRequest;
+import com.wellnest.wellnest.dto.WorkoutPoint;
 import com.wellnest.wellnest.model.WorkoutLog;
 import com.wellnest.wellnest.model.MealLog;
 import com.wellnest.wellnest.model.WaterSleepLog;
 import com.wellnest.wellnest.repository.WorkoutLogRepository;
 import com.wellnest.wellnest.repository.MealLogRepository;
 import com.wellnest.wellnest.repository.WaterSleepLogRepository;
+import com.wellnest.wellnest.service.TrackerBatchService;
+import com.wellnest.wellnest.service.TrackerService;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.Valid;
+import jakarta.validation.groups.Default;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
 
 @RestController
 @RequestMapping("/api/tracker")
 @CrossOrigin
 public class TrackerController {
 
+    private static final Logger log = LoggerFactory.getLogger(TrackerController.class);
+
     private final WorkoutLogRepository workoutRepo;
     private final MealLogRepository mealRepo;
     private final WaterSleepLogRepository waterSleepRepo;
+    private final TrackerBatchService batchService;
+    private final TrackerService trackerService;
+
+    // upper bound on entries accepted by one /batch call
+    private static final int MAX_BATCH_ENTRIES = 5000;
+
+    // Response shapes for the /range endpoints:
+    //  full     - complete log entities (default, what tracker.js uses)
+    //  compact  - chart columns only, one object per entry
+    //  columnar - chart columns only, one array per column (dates[], minutes[], ...)
+    private static final String SHAPE_FULL = "full";
+    private static final String SHAPE_COMPACT = "compact";
+    private static final String SHAPE_COLUMNAR = "columnar";
+    private static final String UNKNOWN_SHAPE = "shape must be one of: full, compact, columnar";
+
+    // bucket sizes accepted by /analytics/{userId}, and the longest range it serves
+    private static final List<String> BUCKETS = List.of("day", "week", "month");
+    private static final int MAX_ANALYTICS_YEARS = 5;
+
+    // longest range served by /timeline in one response
+    private static final int MAX_TIMELINE_DAYS = 366;
 
     public TrackerController(
             WorkoutLogRepository workoutRepo,
             MealLogRepository mealRepo,
-            WaterSleepLogRepository waterSleepRepo
+            WaterSleepLogRepository waterSleepRepo,
+            TrackerBatchService batchService,
+            TrackerService trackerService
     ) {
         this.workoutRepo = workoutRepo;
         this.mealRepo = mealRepo;
         this.waterSleepRepo = waterSleepRepo;
+        this.batchService = batchService;
+        this.trackerService = trackerService;
+    }
+
+    // Populate the daily rollup from existing logs on first start (see TrackerService)
+    @PostConstruct
+    public void init() {
+        int rebuilt = trackerService.backfillSummaries();
+        if (rebuilt > 0) {
+            log.info("Rebuilt daily summaries for {} days from the raw logs", rebuilt);
+        }
     }
 
     // ========= WORKOUTS =========
 
     @PostMapping("/workouts")
-    public ResponseEntity<WorkoutLog> logWorkout(@RequestBody Map<String, Object> payload) {
-        Long userId = Long.valueOf(payload.get("userId").toString());
-        String exerciseType = (String) payload.get("exerciseType");
-
-        Integer duration = payload.get("durationMinutes") != null
-                ? Integer.valueOf(payload.get("durationMinutes").toString())
-                : null;
-
-        Integer calories = payload.get("caloriesBurned") != null
-                ? Integer.valueOf(payload.get("caloriesBurned").toString())
-                : null;
-
-        LocalDate date = payload.get("logDate") != null
-                ? LocalDate.parse(payload.get("logDate").toString())
-                : LocalDate.now();
-
-        LocalTime time = payload.get("logTime") != null
-                ? LocalTime.parse(payload.get("logTime").toString())
-                : LocalTime.now();
-
-        WorkoutLog log = new WorkoutLog();
-        log.setUserId(userId);
-        log.setExerciseType(exerciseType);
-        log.setDurationMinutes(duration);
-        log.setCaloriesBurned(calories);
-        log.setLogDate(date);
-        log.setLogTime(time);
-
-        WorkoutLog saved = workoutRepo.save(log);
+    public ResponseEntity<WorkoutLog> logWorkout(@Validated({Default.class, SingleEntry.class}) @RequestBody WorkoutLogRequest request) {
+        WorkoutLog saved = trackerService.saveWorkout(request.toEntity());
         return ResponseEntity.ok(saved);
     }
 
@@ -76,54 +100,32 @@ public class TrackerController {
     }
 
     @GetMapping("/workouts/{userId}/range")
-    public List<WorkoutLog> getWorkoutsByRange(
+    public ResponseEntity<?> getWorkoutsByRange(
             @PathVariable Long userId,
             @RequestParam String start,
-            @RequestParam String end) {
+            @RequestParam String end,
+            @RequestParam(defaultValue = SHAPE_FULL) String shape) {
         LocalDate startDate = LocalDate.parse(start);
         LocalDate endDate = LocalDate.parse(end);
-        return workoutRepo.findByUserIdAndLogDateBetween(userId, startDate, endDate);
+
+        if (SHAPE_FULL.equals(shape)) {
+            return ResponseEntity.ok(workoutRepo.findByUserIdAndLogDateBetween(userId, startDate, endDate));
+        }
+        List<WorkoutPoint> points = workoutRepo.findPoints(userId, startDate, endDate);
+        if (SHAPE_COMPACT.equals(shape)) {
+            return ResponseEntity.ok(points);
+        }
+        if (SHAPE_COLUMNAR.equals(shape)) {
+            return ResponseEntity.ok(toWorkoutsColumns(points));
+        }
+        return ResponseEntity.badRequest().body(UNKNOWN_SHAPE);
     }
 
     // ========= MEALS =========
 
     @PostMapping("/meals")
-    public ResponseEntity<MealLog> logMeal(@RequestBody Map<String, Object> payload) {
-        Long userId = Long.valueOf(payload.getOrDefault("userId", "0").toString());
-        String mealType = (String) payload.get("mealType");
-        String description = (String) payload.get("description");
-
-        Integer calories = payload.get("calories") != null
-                ? Integer.valueOf(payload.get("calories").toString())
-                : null;
-
-        Integer protein = payload.get("protein") != null
-                ? Integer.valueOf(payload.get("protein").toString())
-                : null;
-
-        Integer carbs = payload.get("carbs") != null
-                ? Integer.valueOf(payload.get("carbs").toString())
-                : null;
-
-        LocalDate date = payload.get("logDate") != null
-                ? LocalDate.parse(payload.get("logDate").toString())
-                : LocalDate.now();
-
-        LocalTime time = payload.get("mealTime") != null
-                ? LocalTime.parse(payload.get("mealTime").toString())
-                : LocalTime.now();
-
-        MealLog log = new MealLog();
-        log.setUserId(userId);
-        log.setMealType(mealType);
-        log.setDescription(description);
-        log.setCalories(calories);
-        log.setProtein(protein);
-        log.setCarbs(carbs);
-        log.setLogDate(date);
-        log.setMealTime(time);
-
-        MealLog saved = mealRepo.save(log);
+    public ResponseEntity<MealLog> logMeal(@Validated({Default.class, SingleEntry.class}) @RequestBody MealLogRequest request) {
+        MealLog saved = trackerService.saveMeal(request.toEntity());
         return ResponseEntity.ok(saved);
     }
 
@@ -134,48 +136,32 @@ public class TrackerController {
     }
 
     @GetMapping("/meals/{userId}/range")
-    public List<MealLog> getMealsByRange(
+    public ResponseEntity<?> getMealsByRange(
             @PathVariable Long userId,
             @RequestParam String start,
-            @RequestParam String end) {
+            @RequestParam String end,
+            @RequestParam(defaultValue = SHAPE_FULL) String shape) {
         LocalDate startDate = LocalDate.parse(start);
         LocalDate endDate = LocalDate.parse(end);
-        return mealRepo.findByUserIdAndLogDateBetween(userId, startDate, endDate);
+
+        if (SHAPE_FULL.equals(shape)) {
+            return ResponseEntity.ok(mealRepo.findByUserIdAndLogDateBetween(userId, startDate, endDate));
+        }
+        List<MealPoint> points = mealRepo.findPoints(userId, startDate, endDate);
+        if (SHAPE_COMPACT.equals(shape)) {
+            return ResponseEntity.ok(points);
+        }
+        if (SHAPE_COLUMNAR.equals(shape)) {
+            return ResponseEntity.ok(toMealsColumns(points));
+        }
+        return ResponseEntity.badRequest().body(UNKNOWN_SHAPE);
     }
 
     // ========= WATER + SLEEP =========
 
     @PostMapping("/water-sleep")
-    public ResponseEntity<WaterSleepLog> logWaterSleep(@RequestBody Map<String, Object> payload) {
-        Long userId = Long.valueOf(payload.get("userId").toString());
-
-        Double water = payload.get("waterIntakeLiters") != null
-                ? Double.valueOf(payload.get("waterIntakeLiters").toString())
-                : 0.0;
-
-        Double sleep = payload.get("sleepHours") != null
-                ? Double.valueOf(payload.get("sleepHours").toString())
-                : 0.0;
-
-        String quality = (String) payload.get("sleepQuality");
-
-        LocalDate date = payload.get("logDate") != null
-                ? LocalDate.parse(payload.get("logDate").toString())
-                : LocalDate.now();
-
-        LocalTime time = payload.get("logTime") != null
-                ? LocalTime.parse(payload.get("logTime").toString())
-                : LocalTime.now();
-
-        WaterSleepLog log = new WaterSleepLog();
-        log.setUserId(userId);
-        log.setLogDate(date);
-        log.setLogTime(time);
-        log.setWaterIntakeLiters(water);
-        log.setSleepHours(sleep);
-        log.setSleepQuality(quality);
-
-        WaterSleepLog saved = waterSleepRepo.save(log);
+    public ResponseEntity<WaterSleepLog> logWaterSleep(@Validated({Default.class, SingleEntry.class}) @RequestBody WaterSleepLogRequest request) {
+        WaterSleepLog saved = trackerService.saveWaterSleep(request.toEntity());
         return ResponseEntity.ok(saved);
     }
 
@@ -187,126 +173,200 @@ public class TrackerController {
     }
 
     @GetMapping("/water-sleep/{userId}/range")
-    public List<WaterSleepLog> getWaterSleepByRange(
+    public ResponseEntity<?> getWaterSleepByRange(
             @PathVariable Long userId,
             @RequestParam String start,
-            @RequestParam String end) {
+            @RequestParam String end,
+            @RequestParam(defaultValue = SHAPE_FULL) String shape) {
         LocalDate startDate = LocalDate.parse(start);
         LocalDate endDate = LocalDate.parse(end);
-        return waterSleepRepo.findByUserIdAndLogDateBetween(userId, startDate, endDate);
+
+        if (SHAPE_FULL.equals(shape)) {
+            return ResponseEntity.ok(waterSleepRepo.findByUserIdAndLogDateBetween(userId, startDate, endDate));
+        }
+        List<WaterSleepPoint> points = waterSleepRepo.findPoints(userId, startDate, endDate);
+        if (SHAPE_COMPACT.equals(shape)) {
+            return ResponseEntity.ok(points);
+        }
+        if (SHAPE_COLUMNAR.equals(shape)) {
+            return ResponseEntity.ok(toWaterSleepColumns(points));
+        }
+        return ResponseEntity.badRequest().body(UNKNOWN_SHAPE);
     }
-// ============ ANALYTICS (Milestone 4) ============
 
-    // ========= DASHBOARD ANALYTICS =========
-    @GetMapping("/analytics/{userId}/dashboard")
-    public Map<String, Object> getDashboardStats(@PathVariable Long userId) {
-        LocalDate today = LocalDate.now();
-        LocalDate sevenDaysAgo = today.minusDays(6);
+    // ========= COLUMNAR HELPERS (shape=columnar) =========
+
+    private static Map<String, Object> toWorkoutsColumns(List<WorkoutPoint> points) {
+        int n = points.size();
+        LocalDate[] dates = new LocalDate[n];
+        int[] minutes = new int[n];
+        int[] calories = new int[n];
+        for (int i = 0; i < n; i++) {
+            WorkoutPoint p = points.get(i);
+            dates[i] = p.logDate();
+            minutes[i] = p.durationMinutes() != null ? p.durationMinutes() : 0;
+            calories[i] = p.caloriesBurned() != null ? p.caloriesBurned() : 0;
+        }
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("dates", dates);
+        columns.put("minutes", minutes);
+        columns.put("calories", calories);
+        return columns;
+    }
 
-        // Fetch logs for last 7 days
-        List<WorkoutLog> workouts = workoutRepo.findByUserIdAndLogDateBetween(userId, sevenDaysAgo, today);
+    private static Map<String, Object> toMealsColumns(List<MealPoint> points) {
+        int n = points.size();
+        LocalDate[] dates = new LocalDate[n];
+        int[] calories = new int[n];
+        int[] protein = new int[n];
+        int[] carbs = new int[n];
+        for (int i = 0; i < n; i++) {
+            MealPoint p = points.get(i);
+            dates[i] = p.logDate();
+            calories[i] = p.calories() != null ? p.calories() : 0;
+            protein[i] = p.protein() != null ? p.protein() : 0;
+            carbs[i] = p.carbs() != null ? p.carbs() : 0;
+        }
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("dates", dates);
+        columns.put("calories", calories);
+        columns.put("protein", protein);
+        columns.put("carbs", carbs);
+        return columns;
+    }
+
+    private static Map<String, Object> toWaterSleepColumns(List<WaterSleepPoint> points) {
+        int n = points.size();
+        LocalDate[] dates = new LocalDate[n];
+        double[] water = new double[n];
+        double[] sleep = new double[n];
+        for (int i = 0; i < n; i++) {
+            WaterSleepPoint p = points.get(i);
+            dates[i] = p.logDate();
+            water[i] = p.waterIntakeLiters() != null ? p.waterIntakeLiters() : 0.0;
+            sleep[i] = p.sleepHours() != null ? p.sleepHours() : 0.0;
+        }
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("dates", dates);
+        columns.put("water", water);
+        columns.put("sleep", sleep);
+        return columns;
+    }
+
+    // ========= TIMELINE (whole dashboard in one round trip) =========
+
+    @GetMapping("/{userId}/timeline")
+    public ResponseEntity<?> getTimeline(
+            @PathVariable Long userId,
+            @RequestParam String start,
+            @RequestParam String end) {
+        LocalDate startDate = LocalDate.parse(start);
+        LocalDate endDate = LocalDate.parse(end);
+
+        if (endDate.isBefore(startDate)) {
+            return ResponseEntity.badRequest().body("end must not be before start");
+        }
+        if (startDate.plusDays(MAX_TIMELINE_DAYS).isBefore(endDate)) {
+            return ResponseEntity.badRequest().body("Range too large (max " + MAX_TIMELINE_DAYS + " days)");
+        }
+
+        return ResponseEntity.ok(trackerService.getTimeline(userId, startDate, endDate));
+    }
+
+    // ========= BATCH SYNC (offline mobile clients) =========
 
-        // Maps to hold daily sums
-        Map<LocalDate, Integer> workoutMap = new HashMap<>();
-        Map<LocalDate, Integer> calorieMap = new HashMap<>();
+    @PostMapping("/batch")
+    public ResponseEntity<?> logBatch(@Valid @RequestBody TrackerBatchRequest request) {
+        List<WorkoutLog> workouts = new ArrayList<>();
+        List<MealLog> meals = new ArrayList<>();
+        List<WaterSleepLog> waterSleep = new ArrayList<>();
+        if (request.getWorkouts() != null) request.getWorkouts().forEach(w -> workouts.add(w.toEntity()));
+        if (request.getMeals() != null) request.getMeals().forEach(m -> meals.add(m.toEntity()));
+        if (request.getWaterSleep() != null) request.getWaterSleep().forEach(ws -> waterSleep.add(ws.toEntity()));
 
-        // Initialize with 0s
-        for (int i = 0; i < 7; i++) {
-            LocalDate d = sevenDaysAgo.plusDays(i);
-            workoutMap.put(d, 0);
-            calorieMap.put(d, 0);
+        int total = workouts.size() + meals.size() + waterSleep.size();
+        if (total == 0) {
+            return ResponseEntity.badRequest().body("Batch contains no entries");
+        }
+        if (total > MAX_BATCH_ENTRIES) {
+            return ResponseEntity.badRequest().body("Batch too large (max " + MAX_BATCH_ENTRIES + " entries)");
         }
 
-        // Aggregate Data
-        for (WorkoutLog w : workouts) {
-            LocalDate d = w.getLogDate();
-            // Ensure date is within range (safety check)
-            if (!d.isBefore(sevenDaysAgo) && !d.isAfter(today)) {
-                int duration = w.getDurationMinutes() != null ? w.getDurationMinutes() : 0;
-                int cals = w.getCaloriesBurned() != null ? w.getCaloriesBurned() : 0;
-
-                workoutMap.put(d, workoutMap.get(d) + duration);
-                calorieMap.put(d, calorieMap.get(d) + cals);
-            }
+        boolean missingUser = request.getUserId() == null && (
+                workouts.stream().anyMatch(w -> w.getUserId() == null)
+                        || meals.stream().anyMatch(m -> m.getUserId() == null)
+                        || waterSleep.stream().anyMatch(ws -> ws.getUserId() == null));
+        if (missingUser) {
+            return ResponseEntity.badRequest().body("userId is required");
         }
 
-        // Prepare arrays for Frontend
-        int[] workoutArr = new int[7];
-        int[] calorieArr = new int[7];
-        String[] labels = new String[7];
-
-        for (int i = 0; i < 7; i++) {
-            LocalDate d = sevenDaysAgo.plusDays(i);
-            workoutArr[i] = workoutMap.get(d);
-            calorieArr[i] = calorieMap.get(d);
-            // Label: e.g. "MON"
-            labels[i] = d.getDayOfWeek().toString().substring(0, 3);
+        Map<String, Integer> saved = batchService.saveAll(request.getUserId(), workouts, meals, waterSleep);
+        return ResponseEntity.ok(saved);
+    }
+
+    // Entries are checked like the single-entry endpoints (a bad one fails the whole
+    // batch with a 400 naming it, e.g. "workouts[3].durationMinutes"), except that
+    // userId may be left out when the batch carries one
+    public static class TrackerBatchRequest {
+        private Long userId; // applied to entries that don't carry their own
+        private List<@Valid WorkoutLogRequest> workouts;
+        private List<@Valid MealLogRequest> meals;
+        private List<@Valid WaterSleepLogRequest> waterSleep;
+
+        // Getters and Setters
+        public Long getUserId() { return userId; }
+        public void setUserId(Long userId) { this.userId = userId; }
+        public List<WorkoutLogRequest> getWorkouts() { return workouts; }
+        public void setWorkouts(List<WorkoutLogRequest> workouts) { this.workouts = workouts; }
+        public List<MealLogRequest> getMeals() { return meals; }
+        public void setMeals(List<MealLogRequest> meals) { this.meals = meals; }
+        public List<WaterSleepLogRequest> getWaterSleep() { return waterSleep; }
+        public void setWaterSleep(List<WaterSleepLogRequest> waterSleep) { this.waterSleep = waterSleep; }
+    }
+
+// ============ ANALYTICS (Milestone 4) ============
+
+    // ========= DASHBOARD ANALYTICS =========
+    // Both endpoints read at most 7 daily_summaries rows (see TrackerService)
+    @GetMapping("/analytics/{userId}/dashboard")
+    public Map<String, Object> getDashboardStats(@PathVariable Long userId) {
+        return trackerService.getDashboardStats(userId, LocalDate.now());
+    }
+
+    // ========= BUCKETED ANALYTICS (long-range charts) =========
+    // e.g. /analytics/5?bucket=month&from=2025-01-01&to=2025-12-31 -> 12 rows
+    @GetMapping("/analytics/{userId}")
+    public ResponseEntity<?> getBucketedAnalytics(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "day") String bucket,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        if (!BUCKETS.contains(bucket)) {
+            return ResponseEntity.badRequest().body("bucket must be one of: day, week, month");
         }
 
-        int todayCalories = calorieMap.get(today);
+        LocalDate endDate = to != null ? LocalDate.parse(to) : LocalDate.now();
+        LocalDate startDate = from != null ? LocalDate.parse(from) : endDate.minusYears(1).plusDays(1);
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("labels", labels);
-        result.put("workoutData", workoutArr);
-        result.put("calorieData", calorieArr);
-        result.put("todayCalories", todayCalories);
+        if (endDate.isBefore(startDate)) {
+            return ResponseEntity.badRequest().body("to must not be before from");
+        }
+        if (startDate.plusYears(MAX_ANALYTICS_YEARS).isBefore(endDate)) {
+            return ResponseEntity.badRequest().body("Range too large (max " + MAX_ANALYTICS_YEARS + " years)");
+        }
 
-        return result;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("bucket", bucket);
+        result.put("from", startDate);
+        result.put("to", endDate);
+        result.putAll(trackerService.getBucketedAnalytics(userId, bucket, startDate, endDate));
+        return ResponseEntity.ok(result);
     }
 
     // ========= WEEKLY ANALYTICS =========
     @GetMapping("/analytics/{userId}/weekly")
     public Map<String, Object> getWeeklyAnalytics(@PathVariable Long userId) {
-        
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusDays(6); // last 7 days
-
-        // ✅ these method names MUST match the repositories above
-        List<WorkoutLog> workouts =
-                workoutRepo.findByUserIdAndLogDateBetween(userId, startDate, endDate);
-
-        List<MealLog> meals =
-                mealRepo.findByUserIdAndLogDateBetween(userId, startDate, endDate);
-
-        List<WaterSleepLog> waterSleepLogs =
-                waterSleepRepo.findByUserIdAndLogDateBetween(userId, startDate, endDate);
-
-        int totalWorkoutMinutes = workouts.stream()
-                .filter(w -> w.getDurationMinutes() != null)
-                .mapToInt(WorkoutLog::getDurationMinutes)
-                .sum();
-
-        int totalWorkoutSessions = workouts.size();
-
-        int totalMealCalories = meals.stream()
-                .filter(m -> m.getCalories() != null)
-                .mapToInt(MealLog::getCalories)
-                .sum();
-
-        double avgWaterIntake = waterSleepLogs.stream()
-                .filter(ws -> ws.getWaterIntakeLiters() != null)
-                .mapToDouble(WaterSleepLog::getWaterIntakeLiters)
-                .average()
-                .orElse(0.0);
-
-        double avgSleepHours = waterSleepLogs.stream()
-                .filter(ws -> ws.getSleepHours() != null)
-                .mapToDouble(WaterSleepLog::getSleepHours)
-                .average()
-                .orElse(0.0);
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("startDate", startDate);
-        result.put("endDate", endDate);
-        result.put("totalWorkoutMinutes", totalWorkoutMinutes);
-        result.put("totalWorkoutSessions", totalWorkoutSessions);
-        result.put("totalMealCalories", totalMealCalories);
-        result.put("avgWaterIntake", avgWaterIntake);
-        result.put("avgSleepHours", avgSleepHours);
-
-        return result;
+        return trackerService.getWeeklyAnalytics(userId, LocalDate.now());
     }
 
 }
-
-
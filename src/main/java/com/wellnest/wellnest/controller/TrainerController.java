@@ -8,7 +8,10 @@ import com.wellnest.wellnest.model.WorkoutPlan;
 import com.wellnest.wellnest.repository.WorkoutPlanRepository;
 import com.wellnest.wellnest.model.MealPlan;
 import com.wellnest.wellnest.repository.MealPlanRepository;
+import com.wellnest.wellnest.service.PasswordService;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +26,8 @@ import java.util.HashMap;
 @CrossOrigin
 public class TrainerController {
 
+    private static final Logger log = LoggerFactory.getLogger(TrainerController.class);
+
     @Autowired
     private TrainerRepository trainerRepository;
 
@@ -35,24 +40,62 @@ public class TrainerController {
     @Autowired
     private MealPlanRepository mealPlanRepository;
 
+    @Autowired
+    private PasswordService passwordService;
+
     // Seeding some dummy data if empty
     @PostConstruct
     public void init() {
+        normalizeContactEmails();
         seedAdmin();
         seedJack();
         seedHardin();
     }
 
+    // Contact emails stored before the setter normalized them; the lookups compare exactly.
+    // The trainer table is small (the seeders below read all of it too).
+    private void normalizeContactEmails() {
+        int fixed = 0;
+        for (Trainer trainer : trainerRepository.findAll()) {
+            String stored = trainer.getContactEmail();
+            if (stored != null && !stored.equals(User.normalizeEmail(stored))) {
+                trainer.setContactEmail(stored);
+                trainerRepository.save(trainer);
+                fixed++;
+            }
+        }
+        if (fixed > 0) {
+            log.info("Normalized contact email of {} trainer profiles", fixed);
+        }
+    }
+
     private void seedAdmin() {
         String adminEmail = "admin@wellnest.com";
-        if (!userRepository.existsByEmail(adminEmail)) {
-            User admin = new User();
+        User admin = userRepository.findByEmail(adminEmail).orElse(null);
+        if (admin == null) {
+            admin = new User();
             admin.setFullName("WellNest Admin");
             admin.setEmail(adminEmail);
-            admin.setPassword("admin123");
+            admin.setPassword(seedPassword("admin123"));
             admin.setRole("ADMIN");
             userRepository.save(admin);
-            System.out.println("DEBUG: Dedicated Admin account created: " + adminEmail);
+            log.info("Dedicated admin account created: {}", adminEmail);
+        } else {
+            hashIfPlaintext(admin);
+        }
+    }
+
+    // Seed accounts are stored hashed like any signup (blocking is fine at startup)
+    private String seedPassword(String rawPassword) {
+        return passwordService.hash(rawPassword).join();
+    }
+
+    // Seeded by an older version with a plaintext password: hash it in place
+    private void hashIfPlaintext(User seeded) {
+        String stored = seeded.getPassword();
+        if (stored != null && !PasswordService.isHashed(stored)) {
+            userRepository.updatePassword(seeded.getId(), seedPassword(stored));
+            log.info("Hashed plaintext password of seeded account {}", seeded.getEmail());
         }
     }
 
@@ -75,16 +118,18 @@ public class TrainerController {
             jackUser = new User();
             jackUser.setFullName("Jack");
             jackUser.setEmail(jackEmail);
-            jackUser.setPassword("Jack@wellnest"); 
+            jackUser.setPassword(seedPassword("Jack@wellnest"));
             jackUser.setRole("TRAINER");
             jackUser = userRepository.save(jackUser);
-            System.out.println("DEBUG: Created User account for Jack");
+            log.info("Created user account for trainer Jack");
+        } else {
+            hashIfPlaintext(jackUser);
         }
 
         if (jack.getUserId() == null) {
             jack.setUserId(jackUser.getId());
             trainerRepository.save(jack);
-            System.out.println("DEBUG: Linked Trainer Jack to User ID " + jackUser.getId());
+            log.info("Linked trainer Jack to user {}", jackUser.getId());
         }
     }
 
@@ -111,10 +156,12 @@ public class TrainerController {
             hardinUser = new User();
             hardinUser.setFullName("Hardin");
             hardinUser.setEmail(hardinEmail);
-            hardinUser.setPassword("Hardin@wellnest");
+            hardinUser.setPassword(seedPassword("Hardin@wellnest"));
             hardinUser.setRole("TRAINER");
             hardinUser = userRepository.save(hardinUser);
-            System.out.println("DEBUG: Created User account for Hardin");
+            log.info("Created user account for trainer Hardin");
+        } else {
+            hashIfPlaintext(hardinUser);
         }
 
         hardin.setUserId(hardinUser.getId());
@@ -194,7 +241,7 @@ public class TrainerController {
         }
 
         // Anti-duplicate check
-        if (trainerRepository.existsByContactEmail(user.getEmail())) {
+        if (trainerRepository.existsByContactEmail(User.normalizeEmail(user.getEmail()))) {
             return ResponseEntity.badRequest().body("You are already enrolled as a trainer!");
         }
 
@@ -220,31 +267,24 @@ public class TrainerController {
     // Get clients for a logged-in trainer
     @GetMapping("/clients")
     public ResponseEntity<?> getTrainerClients(@RequestParam String trainerEmail) {
-        String email = (trainerEmail != null) ? trainerEmail.trim().toLowerCase() : "";
-        System.out.println("DEBUG: Fetching clients for trainer email: [" + email + "]");
-        
-        // Log all trainers in DB for debugging
-        List<Trainer> allTrainers = trainerRepository.findAll();
-        System.out.println("DEBUG: Total trainers in DB: " + allTrainers.size());
-        allTrainers.forEach(t -> System.out.println("DEBUG: Trainer in DB: " + t.getName() + " (" + t.getContactEmail() + ")"));
-
-        // Find all trainer profiles with this email
-        List<Trainer> profiles = allTrainers.stream()
-                .filter(t -> t.getContactEmail() != null && t.getContactEmail().trim().equalsIgnoreCase(email))
-                .toList();
-            
+        String email = (trainerEmail != null) ? User.normalizeEmail(trainerEmail) : "";
+        log.debug("Fetching clients for trainer email [{}]", email);
+
+        // Find all trainer profiles with this email (indexed lookup)
+        List<Trainer> profiles = trainerRepository.findAllByContactEmail(email);
+
         if (profiles.isEmpty()) {
-            System.out.println("DEBUG: No trainer profiles found for email: [" + email + "]");
+            log.debug("No trainer profiles found for email [{}]", email);
             return ResponseEntity.badRequest().body("Trainer profile not found for email: " + email);
         }
         
         List<User> clients = new ArrayList<>();
         for (Trainer p : profiles) {
-            System.out.println("DEBUG: Fetching clients for trainer profile ID: " + p.getId());
+            log.debug("Fetching clients for trainer profile {}", p.getId());
             clients.addAll(userRepository.findByTrainerId(p.getId()));
         }
         
-        System.out.println("DEBUG: Total clients found across " + profiles.size() + " profiles: " + clients.size());
+        log.debug("Found {} clients across {} trainer profiles", clients.size(), profiles.size());
         
         // Remove potential duplicates if a user is somehow linked multiple times (shouldn't happen)
         List<User> distinctClients = clients.stream().distinct().toList();
@@ -296,7 +336,7 @@ public class TrainerController {
         Long trainerId = Long.parseLong(trainerIdStr);
         
         // Update user: set as pending request instead of direct hire
-        System.out.println("DEBUG: Linking user " + userEmail + " to PENDING trainer ID " + trainerId);
+        log.debug("Linking user {} to pending trainer {}", userEmail, trainerId);
         user.setPendingTrainerId(trainerId);
         userRepository.save(user);
 
@@ -462,7 +502,7 @@ public class TrainerController {
             Trainer saved = trainerRepository.save(trainer);
             
             // Also sync user name if it changed
-            userRepository.findByEmail(trainer.getContactEmail()).ifPresent(user -> {
+            userRepository.findByEmailIgnoringCase(trainer.getContactEmail()).ifPresent(user -> {
                 user.setFullName(trainerData.getName());
                 userRepository.save(user);
             });
@@ -0,0 +1,34 @@
+package com.wellnest.wellnest.dto;
+
+import com.wellnest.wellnest.model.MealLog;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Body of POST /api/tracker/meals (and each meals[] entry of /batch); logDate/mealTime default to now
+public record MealLogRequest(
+        @NotNull(groups = SingleEntry.class) Long userId,
+        @Size(max = 255) String mealType,
+        @Size(max = 255) String description,
+        @PositiveOrZero Integer calories,
+        @PositiveOrZero Integer protein,
+        @PositiveOrZero Integer carbs,
+        LocalDate logDate,
+        LocalTime mealTime) {
+
+    public MealLog toEntity() {
+        MealLog log = new MealLog();
+        log.setUserId(userId);
+        log.setMealType(mealType);
+        log.setDescription(description);
+        log.setCalories(calories);
+        log.setProtein(protein);
+        log.setCarbs(carbs);
+        log.setLogDate(logDate != null ? logDate : LocalDate.now());
+        log.setMealTime(mealTime != null ? mealTime : LocalTime.now());
+        return log;
+    }
+}
@@ -0,0 +1,7 @@
+package com.wellnest.wellnest.dto;
+
+import java.time.LocalDate;
+
+// Chart-sized view of a MealLog: only the columns the range charts need
+public record MealPoint(LocalDate logDate, Integer calories, Integer protein, Integer carbs) {
+}
@@ -0,0 +1,16 @@
+package com.wellnest.wellnest.dto;
+
+import com.wellnest.wellnest.model.Message;
+import jakarta.validation.constraints.NotNull;
+
+// Body of POST /api/messages/send. Only these fields are taken from the client:
+// id, timestamp and the read flag are always set by the server.
+public record SendMessageRequest(
+        @NotNull Long senderId,
+        @NotNull Long receiverId,
+        @NotNull String content) {
+
+    public Message toEntity() {
+        return new Message(senderId, receiverId, content);
+    }
+}
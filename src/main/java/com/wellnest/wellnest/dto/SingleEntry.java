@@ -0,0 +1,6 @@
+package com.wellnest.wellnest.dto;
+
+// Validation group for checks that only apply to a tracker entry posted on its
+// own; entries inside a /batch may take their userId from the batch instead
+public interface SingleEntry {
+}
@@ -0,0 +1,31 @@
+package com.wellnest.wellnest.dto;
+
+import com.wellnest.wellnest.model.WaterSleepLog;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Body of POST /api/tracker/water-sleep (and each waterSleep[] entry of /batch); missing amounts are stored as 0
+public record WaterSleepLogRequest(
+        @NotNull(groups = SingleEntry.class) Long userId,
+        @PositiveOrZero @DecimalMax("20") Double waterIntakeLiters,
+        @PositiveOrZero @DecimalMax("24") Double sleepHours,
+        @Size(max = 255) String sleepQuality,
+        LocalDate logDate,
+        LocalTime logTime) {
+
+    public WaterSleepLog toEntity() {
+        WaterSleepLog log = new WaterSleepLog();
+        log.setUserId(userId);
+        log.setWaterIntakeLiters(waterIntakeLiters != null ? waterIntakeLiters : 0.0);
+        log.setSleepHours(sleepHours != null ? sleepHours : 0.0);
+        log.setSleepQuality(sleepQuality);
+        log.setLogDate(logDate != null ? logDate : LocalDate.now());
+        log.setLogTime(logTime != null ? logTime : LocalTime.now());
+        return log;
+    }
+}
@@ -0,0 +1,7 @@
+package com.wellnest.wellnest.dto;
+
+import java.time.LocalDate;
+
+// Chart-sized view of a WaterSleepLog: only the columns the range charts need
+public record WaterSleepPoint(LocalDate logDate, Double waterIntakeLiters, Double sleepHours) {
+}
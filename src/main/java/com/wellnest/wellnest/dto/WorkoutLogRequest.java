@@ -0,0 +1,31 @@
+package com.wellnest.wellnest.dto;
+
+import com.wellnest.wellnest.model.WorkoutLog;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Body of POST /api/tracker/workouts (and each workouts[] entry of /batch); logDate/logTime default to now
+public record WorkoutLogRequest(
+        @NotNull(groups = SingleEntry.class) Long userId,
+        @NotBlank @Size(max = 255) String exerciseType,
+        @PositiveOrZero Integer durationMinutes,
+        @PositiveOrZero Integer caloriesBurned,
+        LocalDate logDate,
+        LocalTime logTime) {
+
+    public WorkoutLog toEntity() {
+        WorkoutLog log = new WorkoutLog();
+        log.setUserId(userId);
+        log.setExerciseType(exerciseType);
+        log.setDurationMinutes(durationMinutes);
+        log.setCaloriesBurned(caloriesBurned);
+        log.setLogDate(logDate != null ? logDate : LocalDate.now());
+        log.setLogTime(logTime != null ? logTime : LocalTime.now());
+        return log;
+    }
+}
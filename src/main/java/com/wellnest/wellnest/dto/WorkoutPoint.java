@@ -0,0 +1,7 @@
+package com.wellnest.wellnest.dto;
+
+import java.time.LocalDate;
+
+// Chart-sized view of a WorkoutLog: only the columns the range charts need
+public record WorkoutPoint(LocalDate logDate, Integer durationMinutes, Integer caloriesBurned) {
+}
@@ -0,0 +1,82 @@
+package com.wellnest.wellnest.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One user's side of a conversation. The unread counter and the latest
+// message are maintained by every send (and the counter by every mark-read),
+// so badge counts and the inbox are read from here instead of the messages table.
+@Entity
+@Table(name = "conversation_status",
+        uniqueConstraints = @UniqueConstraint(name = "uk_conversation_status_user_key", columnNames = {"user_id", "conversation_key"}),
+        indexes = @Index(name = "idx_conversation_status_inbox", columnList = "user_id, last_message_id"))
+public class ConversationStatus {
+
+    public static final int PREVIEW_LENGTH = 120;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "other_user_id", nullable = false)
+    private Long otherUserId;
+
+    @Column(name = "conversation_key", nullable = false, length = 41)
+    private String conversationKey;
+
+    private int unreadCount;
+
+    // Message ids grow with time, so the latest id also orders the inbox by recency
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id")
+    private Long lastSenderId;
+
+    @Column(name = "last_message_preview", length = PREVIEW_LENGTH)
+    private String lastMessagePreview;
+
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+
+    public ConversationStatus() {}
+
+    public static String preview(String content) {
+        if (content == null || content.length() <= PREVIEW_LENGTH) {
+            return content;
+        }
+        int end = Character.isHighSurrogate(content.charAt(PREVIEW_LENGTH - 1)) ? PREVIEW_LENGTH - 1 : PREVIEW_LENGTH;
+        return content.substring(0, end);
+    }
+
+    // getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getOtherUserId() { return otherUserId; }
+    public void setOtherUserId(Long otherUserId) { this.otherUserId = otherUserId; }
+
+    public String getConversationKey() { return conversationKey; }
+    public void setConversationKey(String conversationKey) { this.conversationKey = conversationKey; }
+
+    public int getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(int unreadCount) { this.unreadCount = unreadCount; }
+
+    public Long getLastMessageId() { return lastMessageId; }
+    public void setLastMessageId(Long lastMessageId) { this.lastMessageId = lastMessageId; }
+
+    public Long getLastSenderId() { return lastSenderId; }
+    public void setLastSenderId(Long lastSenderId) { this.lastSenderId = lastSenderId; }
+
+    public String getLastMessagePreview() { return lastMessagePreview; }
+    public void setLastMessagePreview(String lastMessagePreview) { this.lastMessagePreview = lastMessagePreview; }
+
+    public LocalDateTime getLastMessageAt() { return lastMessageAt; }
+    public void setLastMessageAt(LocalDateTime lastMessageAt) { this.lastMessageAt = lastMessageAt; }
+}
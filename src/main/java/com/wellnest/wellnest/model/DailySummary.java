@@ -0,0 +1,73 @@
+package com.wellnest.wellnest.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// Per-user, per-day rollup of the tracker logs. Maintained incrementally
+// by every tracker write so analytics read one row per day.
+@Entity
+@Table(name = "daily_summaries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_summary_user_date", columnNames = {"user_id", "summary_date"}))
+public class DailySummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate;
+
+    private int workoutMinutes;
+    private int workoutSessions;
+    private int caloriesBurned;
+
+    private int caloriesEaten;
+    private int protein;          // g
+    private int carbs;            // g
+
+    private double waterLiters;   // sum over the day's water/sleep entries
+    private double sleepHours;    // sum over the day's water/sleep entries
+    private int waterSleepEntries;
+
+    public DailySummary() {}
+
+    // getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public LocalDate getSummaryDate() { return summaryDate; }
+    public void setSummaryDate(LocalDate summaryDate) { this.summaryDate = summaryDate; }
+
+    public int getWorkoutMinutes() { return workoutMinutes; }
+    public void setWorkoutMinutes(int workoutMinutes) { this.workoutMinutes = workoutMinutes; }
+
+    public int getWorkoutSessions() { return workoutSessions; }
+    public void setWorkoutSessions(int workoutSessions) { this.workoutSessions = workoutSessions; }
+
+    public int getCaloriesBurned() { return caloriesBurned; }
+    public void setCaloriesBurned(int caloriesBurned) { this.caloriesBurned = caloriesBurned; }
+
+    public int getCaloriesEaten() { return caloriesEaten; }
+    public void setCaloriesEaten(int caloriesEaten) { this.caloriesEaten = caloriesEaten; }
+
+    public int getProtein() { return protein; }
+    public void setProtein(int protein) { this.protein = protein; }
+
+    public int getCarbs() { return carbs; }
+    public void setCarbs(int carbs) { this.carbs = carbs; }
+
+    public double getWaterLiters() { return waterLiters; }
+    public void setWaterLiters(double waterLiters) { this.waterLiters = waterLiters; }
+
+    public double getSleepHours() { return sleepHours; }
+    public void setSleepHours(double sleepHours) { this.sleepHours = sleepHours; }
+
+    public int getWaterSleepEntries() { return waterSleepEntries; }
+    public void setWaterSleepEntries(int waterSleepEntries) { this.waterSleepEntries = waterSleepEntries; }
+}
@@ -5,7 +5,7 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "meal_logs")
+@Table(name = "meal_logs", indexes = @Index(name = "idx_meal_logs_user_date", columnList = "user_id, log_date"))
 public class MealLog {
 
     @Id
@@ -4,7 +4,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_messages_conversation", columnList = "conversation_key, id"),
+        @Index(name = "idx_messages_sender", columnList = "sender_id, id"),
+        @Index(name = "idx_messages_receiver", columnList = "receiver_id, id")
+})
 public class Message {
 
     @Id
@@ -13,6 +17,11 @@ public class Message {
 
     private Long senderId;
     private Long receiverId;
+
+    // "<smaller user id>:<larger user id>", the same for both directions of a
+    // conversation, so a whole thread is one range of idx_messages_conversation
+    @Column(name = "conversation_key", length = 41)
+    private String conversationKey;
     
     @Column(columnDefinition = "TEXT")
     private String content;
@@ -32,6 +41,19 @@ public class Message {
         this.timestamp = LocalDateTime.now();
     }
 
+    public static String conversationKey(Long user1Id, Long user2Id) {
+        if (user1Id == null || user2Id == null) {
+            return null;
+        }
+        return Math.min(user1Id, user2Id) + ":" + Math.max(user1Id, user2Id);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void syncConversationKey() {
+        this.conversationKey = conversationKey(senderId, receiverId);
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -42,6 +64,8 @@ public class Message {
     public Long getReceiverId() { return receiverId; }
     public void setReceiverId(Long receiverId) { this.receiverId = receiverId; }
 
+    public String getConversationKey() { return conversationKey; }
+
     public String getContent() { return content; }
     public void setContent(String content) { this.content = content; }
 
@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "password_reset_tokens")
+@Table(name = "password_reset_tokens",
+        indexes = @Index(name = "idx_reset_token_email", columnList = "email"))
 public class PasswordResetToken {
 
     @Id
@@ -23,6 +24,10 @@ public class PasswordResetToken {
     @Column(nullable = false)
     private boolean used = false;
 
+    // wrong OTP guesses against this token
+    @Column(nullable = false)
+    private int attempts = 0;
+
     public PasswordResetToken() {
     }
 
@@ -75,6 +80,14 @@ public class PasswordResetToken {
         this.used = used;
     }
 
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
     public boolean isExpired() {
         return LocalDateTime.now().isAfter(this.expiryTime);
     }
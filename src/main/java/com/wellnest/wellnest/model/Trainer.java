@@ -3,6 +3,7 @@ package com.wellnest.wellnest.model;
 import jakarta.persistence.*;
 
 @Entity
+@Table(indexes = @Index(name = "idx_trainer_contact_email", columnList = "contact_email"))
 public class Trainer {
 
     @Id
@@ -25,7 +26,7 @@ public class Trainer {
         this.specialization = specialization;
         this.experienceYears = experienceYears;
         this.bio = bio;
-        this.contactEmail = contactEmail;
+        setContactEmail(contactEmail);
         this.imageUrl = imageUrl;
         this.age = age;
     }
@@ -53,7 +54,8 @@ public class Trainer {
     public void setBio(String bio) { this.bio = bio; }
 
     public String getContactEmail() { return contactEmail; }
-    public void setContactEmail(String contactEmail) { this.contactEmail = contactEmail; }
+    // stored normalized like User.emailNormalized, so the indexed lookups match exactly (see TrainerRepository)
+    public void setContactEmail(String contactEmail) { this.contactEmail = User.normalizeEmail(contactEmail); }
 
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
@@ -1,9 +1,14 @@
 package com.wellnest.wellnest.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.wellnest.wellnest.service.UserCacheListener;
 import jakarta.persistence.*;
 
+import java.util.Locale;
+
 @Entity
 @Table(name = "users")
+@EntityListeners(UserCacheListener.class)
 public class User {
 
     @Id
@@ -15,6 +20,13 @@ public class User {
     @Column(unique = true, nullable = false)
     private String email;
 
+    // lower-cased, trimmed copy of email; every login/lookup goes through its unique index
+    @Column(name = "email_normalized", unique = true)
+    private String emailNormalized;
+
+    // BCrypt hash (plaintext only on rows not logged into since hashing was added);
+    // accepted from JSON but never written back out
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(nullable = false)
     private String password;
 
@@ -30,6 +42,16 @@ public class User {
     public User() {
     }
 
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void syncEmailNormalized() {
+        this.emailNormalized = normalizeEmail(email);
+    }
+
     // Getters and setters
 
     public Long getId() {
@@ -54,6 +76,7 @@ public class User {
 
     public void setEmail(String email) {
         this.email = email;
+        this.emailNormalized = normalizeEmail(email);
     }
 
     public String getPassword() {
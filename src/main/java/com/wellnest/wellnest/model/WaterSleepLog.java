@@ -5,7 +5,7 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "water_sleep_logs")
+@Table(name = "water_sleep_logs", indexes = @Index(name = "idx_water_sleep_logs_user_date", columnList = "user_id, log_date"))
 public class WaterSleepLog {
 
     @Id
@@ -5,7 +5,7 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "workout_logs")
+@Table(name = "workout_logs", indexes = @Index(name = "idx_workout_logs_user_date", columnList = "user_id, log_date"))
 public class WorkoutLog {
 
     @Id
@@ -0,0 +1,88 @@
+package com.wellnest.wellnest.repository;
+
+import com.wellnest.wellnest.model.ConversationStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ConversationStatusRepository extends JpaRepository<ConversationStatus, Long> {
+
+    // Badge counts: only the conversations with something unread (prefix of the unique key)
+    List<ConversationStatus> findByUserIdAndUnreadCountGreaterThan(Long userId, int unreadCount);
+
+    Optional<ConversationStatus> findByUserIdAndConversationKey(Long userId, String conversationKey);
+
+    // Inbox page, most recent conversation first: one range of idx_conversation_status_inbox
+    List<ConversationStatus> findByUserIdAndLastMessageIdLessThanOrderByLastMessageIdDesc(Long userId, Long beforeId, Limit limit);
+
+    boolean existsByLastMessageIdIsNotNull();
+
+    // Atomic "create or update" of one side of a conversation for a new message; safe under
+    // concurrent sends. The latest-message columns only move forward (a slower send with an
+    // older id leaves them alone), and last_message_id is assigned last because MySQL
+    // evaluates the assignments left to right.
+    @Modifying
+    @Query(value = "INSERT INTO conversation_status (user_id, other_user_id, conversation_key, unread_count, "
+            + "last_message_id, last_sender_id, last_message_preview, last_message_at) "
+            + "VALUES (:userId, :otherUserId, :key, :unread, :messageId, :senderId, :preview, :sentAt) "
+            + "ON DUPLICATE KEY UPDATE unread_count = unread_count + :unread, "
+            + "last_sender_id = CASE WHEN :messageId > COALESCE(last_message_id, 0) THEN :senderId ELSE last_sender_id END, "
+            + "last_message_preview = CASE WHEN :messageId > COALESCE(last_message_id, 0) THEN :preview ELSE last_message_preview END, "
+            + "last_message_at = CASE WHEN :messageId > COALESCE(last_message_id, 0) THEN :sentAt ELSE last_message_at END, "
+            + "last_message_id = GREATEST(COALESCE(last_message_id, 0), :messageId)",
+            nativeQuery = true)
+    int recordMessage(@Param("userId") Long userId,
+                      @Param("otherUserId") Long otherUserId,
+                      @Param("key") String conversationKey,
+                      @Param("unread") int unread,
+                      @Param("messageId") Long messageId,
+                      @Param("senderId") Long senderId,
+                      @Param("preview") String preview,
+                      @Param("sentAt") LocalDateTime sentAt);
+
+    // Takes off exactly the messages a mark-read flipped, so the counter never drifts
+    @Modifying
+    @Query(value = "UPDATE conversation_status SET unread_count = GREATEST(unread_count - :count, 0) "
+            + "WHERE user_id = :userId AND conversation_key = :key",
+            nativeQuery = true)
+    int subtractUnread(@Param("userId") Long userId,
+                       @Param("key") String conversationKey,
+                       @Param("count") int count);
+
+    // One-off seeding from the messages that existed before this table: a row for each side
+    // of every conversation with its unread count and latest message id. Counters already
+    // maintained by earlier versions are kept; only the latest id is filled in. The grouped
+    // select sits in a derived table so the update can name its column (seeded.latest_id)
+    // instead of using the deprecated VALUES(col).
+    @Modifying
+    @Query(value = "INSERT INTO conversation_status (user_id, other_user_id, conversation_key, unread_count, last_message_id) "
+            + "SELECT * FROM ("
+            + "  SELECT user_id, other_user_id, conversation_key, SUM(unread) AS unread, MAX(id) AS latest_id FROM ("
+            + "    SELECT receiver_id AS user_id, sender_id AS other_user_id, conversation_key, id, "
+            + "           CASE WHEN is_read = false THEN 1 ELSE 0 END AS unread "
+            + "    FROM messages WHERE conversation_key IS NOT NULL "
+            + "    UNION ALL "
+            + "    SELECT sender_id, receiver_id, conversation_key, id, 0 "
+            + "    FROM messages WHERE conversation_key IS NOT NULL"
+            + "  ) sides GROUP BY user_id, other_user_id, conversation_key"
+            + ") AS seeded "
+            + "ON DUPLICATE KEY UPDATE last_message_id = seeded.latest_id",
+            nativeQuery = true)
+    int seedFromMessages();
+
+    // Second half of the seeding: sender, preview and time of each row's latest message
+    @Modifying
+    @Query(value = "UPDATE conversation_status s SET "
+            + "last_sender_id = (SELECT m.sender_id FROM messages m WHERE m.id = s.last_message_id), "
+            + "last_message_preview = (SELECT LEFT(m.content, " + ConversationStatus.PREVIEW_LENGTH + ") FROM messages m WHERE m.id = s.last_message_id), "
+            + "last_message_at = (SELECT m.timestamp FROM messages m WHERE m.id = s.last_message_id) "
+            + "WHERE s.last_message_id IS NOT NULL AND s.last_message_at IS NULL",
+            nativeQuery = true)
+    int seedLastMessages();
+}
@@ -0,0 +1,76 @@
+package com.wellnest.wellnest.repository;
+
+import com.wellnest.wellnest.model.DailySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailySummaryRepository extends JpaRepository<DailySummary, Long> {
+
+    List<DailySummary> findByUserIdAndSummaryDateBetween(Long userId, LocalDate start, LocalDate end);
+
+    // cheap "any rows yet?" check for the startup backfill (count(*) scans the table)
+    boolean existsByIdIsNotNull();
+
+    // used by the dashboard timeline
+    List<DailySummary> findByUserIdAndSummaryDateBetweenOrderBySummaryDateAsc(Long userId, LocalDate start, LocalDate end);
+
+    // Atomic "create or add to" for one (user, day) row; safe under concurrent writes.
+    // Row-alias upsert (MySQL 8.0.19+) rather than the deprecated VALUES(col).
+    @Modifying
+    @Query(value = "INSERT INTO daily_summaries (user_id, summary_date, workout_minutes, workout_sessions, calories_burned, "
+            + "calories_eaten, protein, carbs, water_liters, sleep_hours, water_sleep_entries) "
+            + "VALUES (:userId, :day, :workoutMinutes, :workoutSessions, :caloriesBurned, "
+            + ":caloriesEaten, :protein, :carbs, :waterLiters, :sleepHours, :waterSleepEntries) AS added "
+            + "ON DUPLICATE KEY UPDATE "
+            + "workout_minutes = workout_minutes + added.workout_minutes, "
+            + "workout_sessions = workout_sessions + added.workout_sessions, "
+            + "calories_burned = calories_burned + added.calories_burned, "
+            + "calories_eaten = calories_eaten + added.calories_eaten, "
+            + "protein = protein + added.protein, "
+            + "carbs = carbs + added.carbs, "
+            + "water_liters = water_liters + added.water_liters, "
+            + "sleep_hours = sleep_hours + added.sleep_hours, "
+            + "water_sleep_entries = water_sleep_entries + added.water_sleep_entries",
+            nativeQuery = true)
+    int addToDay(@Param("userId") Long userId,
+                 @Param("day") LocalDate day,
+                 @Param("workoutMinutes") int workoutMinutes,
+                 @Param("workoutSessions") int workoutSessions,
+                 @Param("caloriesBurned") int caloriesBurned,
+                 @Param("caloriesEaten") int caloriesEaten,
+                 @Param("protein") int protein,
+                 @Param("carbs") int carbs,
+                 @Param("waterLiters") double waterLiters,
+                 @Param("sleepHours") double sleepHours,
+                 @Param("waterSleepEntries") int waterSleepEntries);
+
+    // Rebuilds the (user, day) rows that have raw logs but no summary row yet, from all
+    // three log tables at once. Days that already have a row are left alone: from then on
+    // addToDay keeps them current, so only logs written before the rollup existed are missing.
+    // IGNORE skips a day that a concurrent addToDay created in the meantime.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO daily_summaries (user_id, summary_date, workout_minutes, workout_sessions, calories_burned, "
+            + "calories_eaten, protein, carbs, water_liters, sleep_hours, water_sleep_entries) "
+            + "SELECT user_id, log_date, SUM(workout_minutes), SUM(workout_sessions), SUM(calories_burned), "
+            + "SUM(calories_eaten), SUM(protein), SUM(carbs), SUM(water_liters), SUM(sleep_hours), SUM(water_sleep_entries) FROM ("
+            + "  SELECT user_id, log_date, COALESCE(duration_minutes, 0) AS workout_minutes, 1 AS workout_sessions, "
+            + "         COALESCE(calories_burned, 0) AS calories_burned, 0 AS calories_eaten, 0 AS protein, 0 AS carbs, "
+            + "         0 AS water_liters, 0 AS sleep_hours, 0 AS water_sleep_entries "
+            + "  FROM workout_logs WHERE user_id IS NOT NULL AND log_date IS NOT NULL "
+            + "  UNION ALL "
+            + "  SELECT user_id, log_date, 0, 0, 0, COALESCE(calories, 0), COALESCE(protein, 0), COALESCE(carbs, 0), 0, 0, 0 "
+            + "  FROM meal_logs WHERE user_id IS NOT NULL AND log_date IS NOT NULL "
+            + "  UNION ALL "
+            + "  SELECT user_id, log_date, 0, 0, 0, 0, 0, 0, COALESCE(water_intake_liters, 0), COALESCE(sleep_hours, 0), 1 "
+            + "  FROM water_sleep_logs WHERE user_id IS NOT NULL AND log_date IS NOT NULL"
+            + ") logs "
+            + "WHERE NOT EXISTS (SELECT 1 FROM daily_summaries s WHERE s.user_id = logs.user_id AND s.summary_date = logs.log_date) "
+            + "GROUP BY user_id, log_date",
+            nativeQuery = true)
+    int rebuildMissingDays();
+}
@@ -1,12 +1,20 @@
 package com.wellnest.wellnest.repository;
 
 import com.wellnest.wellnest.model.MealPlan;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MealPlanRepository extends JpaRepository<MealPlan, Long> {
     List<MealPlan> findByUserIdOrderByAssignedAtDesc(Long userId);
+
+    // Full history for export. Must be consumed inside a transaction and closed;
+    // fetch size MIN_VALUE makes Connector/J stream rows instead of buffering them.
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+    Stream<MealPlan> streamByUserIdOrderByIdAsc(Long userId);
 }
@@ -1,18 +1,54 @@
 package com.wellnest.wellnest.repository;
 
 import com.wellnest.wellnest.model.Message;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
     
-    @Query("SELECT m FROM Message m WHERE (m.senderId = :u1 AND m.receiverId = :u2) OR (m.senderId = :u2 AND m.receiverId = :u1) ORDER BY m.timestamp ASC")
-    List<Message> findConversation(@Param("u1") Long user1Id, @Param("u2") Long user2Id);
+    // Keyset pages of a conversation (key from Message.conversationKey), each one
+    // range scan of idx_messages_conversation. Ids only grow, so "newer than the
+    // last one I have" is id > afterId.
+    @Query("SELECT m FROM Message m WHERE m.conversationKey = :key AND m.id > :afterId ORDER BY m.id ASC")
+    List<Message> findConversationAfter(@Param("key") String conversationKey,
+                                        @Param("afterId") Long afterId, Limit limit);
+
+    // Newest first; pass Long.MAX_VALUE for the most recent page
+    @Query("SELECT m FROM Message m WHERE m.conversationKey = :key AND m.id < :beforeId ORDER BY m.id DESC")
+    List<Message> findConversationBefore(@Param("key") String conversationKey,
+                                         @Param("beforeId") Long beforeId, Limit limit);
+
+    // Fills conversation_key on rows written before it existed, one batch per call
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE messages SET conversation_key = CONCAT(LEAST(sender_id, receiver_id), ':', GREATEST(sender_id, receiver_id)) "
+            + "WHERE conversation_key IS NULL AND sender_id IS NOT NULL AND receiver_id IS NOT NULL LIMIT :batchSize",
+            nativeQuery = true)
+    int backfillConversationKey(@Param("batchSize") int batchSize);
     
-    List<Message> findByReceiverIdAndIsReadFalse(Long receiverId);
+    // Bulk mark-read of everything the user received in one conversation up to a message id
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true WHERE m.conversationKey = :key AND m.receiverId = :userId "
+            + "AND m.id <= :upToId AND m.isRead = false")
+    int markRead(@Param("key") String conversationKey, @Param("userId") Long userId, @Param("upToId") Long upToId);
+
+    // Stream replay after a reconnect: everything sent or received after the last seen id
+    @Query("SELECT m FROM Message m WHERE (m.senderId = :userId OR m.receiverId = :userId) AND m.id > :afterId ORDER BY m.id ASC")
+    List<Message> findForUserAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    // Full history for export. Must be consumed inside a transaction and closed;
+    // fetch size MIN_VALUE makes Connector/J stream rows instead of buffering them.
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+    Stream<Message> streamBySenderIdOrReceiverIdOrderByIdAsc(Long senderId, Long receiverId);
 }
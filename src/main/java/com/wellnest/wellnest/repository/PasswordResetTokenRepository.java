@@ -1,16 +1,35 @@
 package com.wellnest.wellnest.repository;
 
 import com.wellnest.wellnest.model.PasswordResetToken;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
     
-    Optional<PasswordResetToken> findByEmailAndOtpAndUsedFalse(String email, String otp);
+    // the live token for an email (older ones are deleted when a new one is issued);
+    // locked so concurrent guesses cannot lose an attempt increment
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<PasswordResetToken> findFirstByEmailAndUsedFalseOrderByIdDesc(String email);
     
     List<PasswordResetToken> findByEmail(String email);
+
+    @Modifying
+    @Query("DELETE FROM PasswordResetToken t WHERE t.email = :email")
+    int deleteAllByEmail(@Param("email") String email);
+
+    // One purge batch; LIMIT keeps each DELETE's locks and undo log small
+    @Modifying
+    @Query(value = "DELETE FROM password_reset_tokens WHERE used = true OR expiry_time < :now LIMIT :batchSize",
+            nativeQuery = true)
+    int deleteExpiredOrUsed(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
 }
@@ -11,4 +11,8 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
     List<Trainer> findBySpecializationContainingIgnoreCase(String specialization);
     boolean existsByContactEmail(String email);
     java.util.Optional<Trainer> findByContactEmail(String email);
+    // contact_email is indexed and stored normalized (User.normalizeEmail), so these
+    // compare exactly whatever the column collation; pass a normalized address
+    java.util.Optional<Trainer> findFirstByContactEmail(String email);
+    List<Trainer> findAllByContactEmail(String email);
 }
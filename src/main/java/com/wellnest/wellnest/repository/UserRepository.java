@@ -2,6 +2,10 @@ package com.wellnest.wellnest.repository;
 
 import com.wellnest.wellnest.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,4 +17,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     List<User> findByTrainerId(Long trainerId);
+
+    // Single-row lookups on the unique email_normalized index
+    Optional<User> findByEmailNormalized(String emailNormalized);
+
+    boolean existsByEmailNormalized(String emailNormalized);
+
+    // Case-insensitive lookup for whatever the client typed
+    default Optional<User> findByEmailIgnoringCase(String email) {
+        return findByEmailNormalized(User.normalizeEmail(email));
+    }
+
+    default boolean existsByEmailIgnoringCase(String email) {
+        return existsByEmailNormalized(User.normalizeEmail(email));
+    }
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    // Fills email_normalized for rows created before the column existed.
+    // IGNORE leaves a row NULL if it would collide with another account's address.
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE IGNORE users SET email_normalized = LOWER(TRIM(email)) WHERE email_normalized IS NULL",
+            nativeQuery = true)
+    int backfillEmailNormalized();
 }
@@ -1,10 +1,16 @@
 package com.wellnest.wellnest.repository;
 
+import com.wellnest.wellnest.dto.WaterSleepPoint;
 import com.wellnest.wellnest.model.WaterSleepLog;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface WaterSleepLogRepository extends JpaRepository<WaterSleepLog, Long> {
 
@@ -13,4 +19,26 @@ public interface WaterSleepLogRepository extends JpaRepository<WaterSleepLog, Lo
 
     // ✅ used by weekly analytics
     List<WaterSleepLog> findByUserIdAndLogDateBetween(Long userId, LocalDate start, LocalDate end);
+
+    // columns-only read for the range charts; DTOs never enter the persistence context
+    @Query("SELECT new com.wellnest.wellnest.dto.WaterSleepPoint(ws.logDate, ws.waterIntakeLiters, ws.sleepHours) FROM WaterSleepLog ws "
+            + "WHERE ws.userId = :userId AND ws.logDate BETWEEN :start AND :end ORDER BY ws.logDate, ws.logTime")
+    List<WaterSleepPoint> findPoints(@Param("userId") Long userId, @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Totals per day/week/month bucket, grouped in SQL. bucket: "day" | "week" (Monday start) | "month".
+    // Row = [bucketStart, entries, waterLiters, sleepHours]
+    @Query(value = "SELECT CASE :bucket WHEN 'week' THEN DATE_SUB(log_date, INTERVAL WEEKDAY(log_date) DAY) "
+            + "WHEN 'month' THEN DATE_SUB(log_date, INTERVAL DAYOFMONTH(log_date) - 1 DAY) "
+            + "ELSE log_date END AS bucket_start, "
+            + "COUNT(*), COALESCE(SUM(water_intake_liters), 0), COALESCE(SUM(sleep_hours), 0) "
+            + "FROM water_sleep_logs WHERE user_id = :userId AND log_date BETWEEN :start AND :end "
+            + "GROUP BY bucket_start ORDER BY bucket_start",
+            nativeQuery = true)
+    List<Object[]> sumByBucket(@Param("userId") Long userId, @Param("bucket") String bucket,
+                               @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Full history for export. Must be consumed inside a transaction and closed;
+    // fetch size MIN_VALUE makes Connector/J stream rows instead of buffering them.
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+    Stream<WaterSleepLog> streamByUserIdOrderByIdAsc(Long userId);
 }
@@ -0,0 +1,87 @@
+package com.wellnest.wellnest.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Caches the 7-day dashboard and weekly analytics per (user, day the window ends).
+ *
+ * A log on day d is part of every window ending on d..d+6, so a write evicts
+ * exactly those keys for that user. Eviction runs after the writing
+ * transaction commits; an in-flight computation for the same key finishes
+ * first and is then discarded, so a stale result is never left behind.
+ */
+@Component
+public class AnalyticsCache {
+
+    public static final String DASHBOARD = "dashboard";
+    public static final String WEEKLY = "weekly";
+
+    // days covered by one window (today and the 6 before it)
+    private static final int WINDOW_DAYS = 7;
+
+    record Key(String kind, Long userId, LocalDate day) {}
+
+    private final Cache<Key, Map<String, Object>> cache;
+
+    public AnalyticsCache(@Value("${wellnest.analytics-cache.max-size:10000}") long maxSize,
+                          @Value("${wellnest.analytics-cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Map<String, Object> get(String kind, Long userId, LocalDate day, Supplier<Map<String, Object>> loader) {
+        return cache.get(new Key(kind, userId, day), k -> loader.get());
+    }
+
+    // Evicts every window that contains one of the given days
+    public void invalidate(Long userId, Collection<LocalDate> days) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId, days);
+                }
+            });
+        } else {
+            evict(userId, days);
+        }
+    }
+
+    private void evict(Long userId, Collection<LocalDate> days) {
+        for (LocalDate day : days) {
+            for (int i = 0; i < WINDOW_DAYS; i++) {
+                LocalDate windowEnd = day.plusDays(i);
+                cache.invalidate(new Key(DASHBOARD, userId, windowEnd));
+                cache.invalidate(new Key(WEEKLY, userId, windowEnd));
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats s = cache.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.estimatedSize());
+        stats.put("hits", s.hitCount());
+        stats.put("misses", s.missCount());
+        stats.put("hitRate", s.hitRate());
+        stats.put("evictions", s.evictionCount());
+        stats.put("averageLoadMillis", s.averageLoadPenalty() / 1_000_000.0);
+        return stats;
+    }
+}
@@ -0,0 +1,111 @@
+package com.wellnest.wellnest.service;
+
+import com.wellnest.wellnest.model.ConversationStatus;
+import com.wellnest.wellnest.model.Message;
+import com.wellnest.wellnest.repository.ConversationStatusRepository;
+import com.wellnest.wellnest.repository.MessageRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Message writes and the per-user conversation rows that go with them.
+ *
+ * A send inserts the message, bumps the receiver's counter and records it as
+ * the latest message on both sides, in one transaction; a mark-read flips
+ * is_read in bulk and takes off exactly the number of rows it flipped, also in
+ * one transaction. So the counter always matches the unread messages, and
+ * neither badge counts nor the inbox touch the messages table.
+ */
+@Service
+public class ConversationService {
+
+    private final MessageRepository messageRepository;
+    private final ConversationStatusRepository statusRepository;
+
+    public ConversationService(MessageRepository messageRepository,
+                               ConversationStatusRepository statusRepository) {
+        this.messageRepository = messageRepository;
+        this.statusRepository = statusRepository;
+    }
+
+    @Transactional
+    public Message send(Message message) {
+        Message saved = messageRepository.save(message);
+        String preview = ConversationStatus.preview(saved.getContent());
+        statusRepository.recordMessage(saved.getReceiverId(), saved.getSenderId(), saved.getConversationKey(), 1,
+                saved.getId(), saved.getSenderId(), preview, saved.getTimestamp());
+        statusRepository.recordMessage(saved.getSenderId(), saved.getReceiverId(), saved.getConversationKey(), 0,
+                saved.getId(), saved.getSenderId(), preview, saved.getTimestamp());
+        return saved;
+    }
+
+    // Marks what userId received from otherUserId up to upToId (everything when null); returns rows flipped
+    @Transactional
+    public int markRead(Long userId, Long otherUserId, Long upToId) {
+        String key = Message.conversationKey(userId, otherUserId);
+        int marked = messageRepository.markRead(key, userId, upToId != null ? upToId : Long.MAX_VALUE);
+        if (marked > 0) {
+            statusRepository.subtractUnread(userId, key, marked);
+        }
+        return marked;
+    }
+
+    public int unreadCount(Long userId, Long otherUserId) {
+        return statusRepository.findByUserIdAndConversationKey(userId, Message.conversationKey(userId, otherUserId))
+                .map(ConversationStatus::getUnreadCount)
+                .orElse(0);
+    }
+
+    // Total plus one entry per conversation with unread messages, from a single indexed query
+    public Map<String, Object> unreadCounts(Long userId) {
+        List<Map<String, Object>> conversations = new ArrayList<>();
+        int total = 0;
+        for (ConversationStatus s : statusRepository.findByUserIdAndUnreadCountGreaterThan(userId, 0)) {
+            Map<String, Object> c = new LinkedHashMap<>();
+            c.put("otherUserId", s.getOtherUserId());
+            c.put("unread", s.getUnreadCount());
+            conversations.add(c);
+            total += s.getUnreadCount();
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", total);
+        result.put("conversations", conversations);
+        return result;
+    }
+
+    // One page of the user's conversations, most recent first; pass the last
+    // lastMessageId of a page as beforeId to get the next one
+    public List<Map<String, Object>> inbox(Long userId, Long beforeId, int limit) {
+        List<Map<String, Object>> page = new ArrayList<>();
+        for (ConversationStatus s : statusRepository.findByUserIdAndLastMessageIdLessThanOrderByLastMessageIdDesc(
+                userId, beforeId != null ? beforeId : Long.MAX_VALUE, Limit.of(limit))) {
+            Map<String, Object> c = new LinkedHashMap<>();
+            c.put("otherUserId", s.getOtherUserId());
+            c.put("lastMessageId", s.getLastMessageId());
+            c.put("lastSenderId", s.getLastSenderId());
+            c.put("lastMessagePreview", s.getLastMessagePreview());
+            c.put("lastMessageAt", s.getLastMessageAt());
+            c.put("unread", s.getUnreadCount());
+            page.add(c);
+        }
+        return page;
+    }
+
+    // Conversation rows start from the messages already stored when the table (or its
+    // latest-message columns) first appear; after that every send maintains them
+    @Transactional
+    public int seedConversations() {
+        if (statusRepository.existsByLastMessageIdIsNotNull()) {
+            return 0;
+        }
+        int seeded = statusRepository.seedFromMessages();
+        statusRepository.seedLastMessages();
+        return seeded;
+    }
+}
@@ -1,110 +1,272 @@
 package com.wellnest.wellnest.service;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import jakarta.mail.internet.MimeMessage;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outgoing mail. Callers only enqueue; worker threads drain the bounded
+ * queue in batches and hand each batch to the mail sender in one call, which
+ * sends it over a single SMTP connection. Failed messages are retried with
+ * exponential backoff.
+ *
+ * HTML bodies come from templates under resources/mail, parsed once at startup.
+ */
 @Service
 public class EmailService {
 
+    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
+
+    private static final String FROM = "noreply@wellnest.com";
+    private static final int OTP_VALID_MINUTES = 10;
+
+    // one queued message; attempt counts sends already tried
+    private record OutgoingEmail(String to, String subject, String html,
+                                 long enqueuedAtNanos, int attempt) {
+        OutgoingEmail retry() {
+            return new OutgoingEmail(to, subject, html, enqueuedAtNanos, attempt + 1);
+        }
+    }
+
     @Autowired(required = false)
     private JavaMailSender mailSender;
 
-    public void sendOtpEmail(String toEmail, String otp) {
-        try {
-            if (mailSender == null) {
-                // For development: Just log the OTP instead of sending email
-                System.out.println("===========================================");
-                System.out.println("EMAIL SERVICE NOT CONFIGURED");
-                System.out.println("OTP for " + toEmail + " is: " + otp);
-                System.out.println("===========================================");
+    @Autowired
+    private Environment environment;
+
+    private final EmailTemplate otpTemplate = EmailTemplate.load("mail/otp-email.html");
+
+    @Value("${wellnest.mail.base-url:http://localhost:8080}")
+    private String baseUrl = "http://localhost:8080";
+
+    @Value("${wellnest.mail.queue-capacity:1000}")
+    private int queueCapacity = 1000;
+
+    @Value("${wellnest.mail.workers:2}")
+    private int workers = 2;
+
+    @Value("${wellnest.mail.batch-size:20}")
+    private int batchSize = 20;
+
+    @Value("${wellnest.mail.max-attempts:4}")
+    private int maxAttempts = 4;
+
+    @Value("${wellnest.mail.retry-backoff-ms:1000}")
+    private long retryBackoffMs = 1000;
+
+    // Local development without SMTP only: log reset OTPs instead of dropping them
+    @Value("${wellnest.mail.dev-log-otp:false}")
+    private boolean devLogOtp = false;
+
+    private BlockingQueue<OutgoingEmail> queue;
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private ScheduledExecutorService retryScheduler;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchNanos = new LongAdder();
+    private final AtomicLong maxBatchNanos = new AtomicLong();
+    private final LongAdder dequeued = new LongAdder();        // incl. retries
+    private final LongAdder queuedNanos = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (mailSender == null) {
+            return;
+        }
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mail-retry");
+            t.setDaemon(true);
+            return t;
+        });
+        // SMTP sends block on I/O; in virtual-thread mode the workers are virtual too
+        ThreadFactory threads = Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("mail-sender-").getVirtualThreadFactory()
+                : r -> {
+                    Thread t = new Thread(r);
+                    t.setDaemon(true);
+                    return t;
+                };
+        for (int i = 0; i < workers; i++) {
+            Thread t = threads.newThread(this::drainLoop);
+            t.setName("mail-sender-" + i);
+            t.start();
+            workerThreads.add(t);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        workerThreads.forEach(Thread::interrupt);
+        if (retryScheduler != null) {
+            retryScheduler.shutdownNow();
+        }
+    }
+
+    // Queues the OTP email; false if the queue is full (caller should ask the user to retry)
+    public boolean sendOtpEmail(String toEmail, String otp) {
+        if (mailSender == null) {
+            if (devLogOtp) {
+                log.warn("Email service not configured (dev-log-otp); OTP for {} is: {}", toEmail, otp);
+            } else {
+                log.warn("Email service not configured; OTP email to {} not sent", toEmail);
+            }
+            return true;
+        }
+
+        OutgoingEmail email = new OutgoingEmail(toEmail, "WellNest - Password Reset OTP",
+                createOtpEmailHtml(otp), System.nanoTime(), 0);
+        if (!queue.offer(email)) {
+            dropped.increment();
+            log.error("Email queue full, dropped OTP email to {}", toEmail);
+            return false;
+        }
+        return true;
+    }
+
+    // package-private so the JMH suite (src/jmh/java) can measure it without a mail sender
+    String createOtpEmailHtml(String otp) {
+        return otpTemplate.render(Map.of(
+                "otp", otp,
+                "validMinutes", String.valueOf(OTP_VALID_MINUTES),
+                "baseUrl", baseUrl));
+    }
+
+    // ========= WORKERS =========
+
+    private void drainLoop() {
+        List<OutgoingEmail> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
                 return;
             }
+            queue.drainTo(batch, batchSize - 1);
+            sendBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void sendBatch(List<OutgoingEmail> batch) {
+        long now = System.nanoTime();
+        List<OutgoingEmail> toSend = new ArrayList<>(batch.size());
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (OutgoingEmail email : batch) {
+            dequeued.increment();
+            queuedNanos.add(now - email.enqueuedAtNanos());
+            try {
+                messages.add(toMimeMessage(email));
+                toSend.add(email);
+            } catch (MessagingException e) {
+                // malformed address etc.; retrying will not help
+                giveUp(email, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
 
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom("noreply@wellnest.com");
-            helper.setTo(toEmail);
-            helper.setSubject("WellNest - Password Reset OTP");
-
-            // Create HTML email content
-            String htmlContent = createOtpEmailHtml(otp);
-            helper.setText(htmlContent, true); // true = HTML
-
-            mailSender.send(message);
-            System.out.println("✅ OTP email sent successfully to: " + toEmail);
-            
-        } catch (Exception e) {
-            System.err.println("❌ Failed to send email: " + e.getMessage());
-            e.printStackTrace();
-            // Still log to console for development
-            System.out.println("===========================================");
-            System.out.println("EMAIL SENDING FAILED - OTP for " + toEmail + " is: " + otp);
-            System.out.println("===========================================");
-            
-            // THROW the error so the frontend knows it failed
-            throw new RuntimeException("Failed to send email. Check credentials.");
+        long start = System.nanoTime();
+        try {
+            // one call = one SMTP connection for the whole batch
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+            sent.add(messages.size());
+        } catch (MailSendException e) {
+            Map<Object, Exception> failures = e.getFailedMessages();
+            for (int i = 0; i < messages.size(); i++) {
+                Exception failure = failures.isEmpty() ? e : failures.get(messages.get(i));
+                if (failure == null) {
+                    sent.increment();
+                } else {
+                    retryLater(toSend.get(i), failure);
+                }
+            }
+        } catch (RuntimeException e) {
+            toSend.forEach(email -> retryLater(email, e));
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            batches.increment();
+            batchNanos.add(elapsed);
+            maxBatchNanos.accumulateAndGet(elapsed, Math::max);
         }
     }
 
-    private String createOtpEmailHtml(String otp) {
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE html>");
-        html.append("<html>");
-        html.append("<head>");
-        html.append("<meta charset=\"UTF-8\">");
-        html.append("<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">");
-        html.append("<style>");
-        html.append("body { font-family: Arial, sans-serif; background-color: #f4f4f4; margin: 0; padding: 0; }");
-        html.append(".email-container { max-width: 600px; margin: 40px auto; background-color: #ffffff; border-radius: 8px; overflow: hidden; box-shadow: 0 4px 12px rgba(0,0,0,0.1); }");
-        html.append(".header { background: linear-gradient(135deg, #18b046 0%, #14932a 100%); color: #ffffff; padding: 30px; text-align: center; }");
-        html.append(".header h1 { margin: 0; font-size: 28px; letter-spacing: 2px; }");
-        html.append(".content { padding: 40px 30px; color: #333333; }");
-        html.append(".content h2 { color: #18b046; margin-top: 0; }");
-        html.append(".otp-box { background-color: #f8f9fa; border: 2px dashed #18b046; border-radius: 8px; padding: 20px; text-align: center; margin: 30px 0; }");
-        html.append(".otp-code { font-size: 36px; font-weight: bold; color: #18b046; letter-spacing: 8px; font-family: 'Courier New', monospace; }");
-        html.append(".reset-link { display: inline-block; margin: 20px 0; padding: 14px 30px; background-color: #18b046; color: #ffffff !important; text-decoration: none; border-radius: 6px; font-weight: bold; transition: background-color 0.3s; }");
-        html.append(".reset-link:hover { background-color: #14932a; }");
-        html.append(".info-text { color: #666666; font-size: 14px; line-height: 1.6; margin: 15px 0; }");
-        html.append(".warning { background-color: #fff3cd; border-left: 4px solid #ffc107; padding: 15px; margin: 20px 0; color: #856404; }");
-        html.append(".footer { background-color: #f8f9fa; padding: 20px; text-align: center; color: #666666; font-size: 12px; border-top: 1px solid #e0e0e0; }");
-        html.append(".footer a { color: #18b046; text-decoration: none; }");
-        html.append("</style>");
-        html.append("</head>");
-        html.append("<body>");
-        html.append("<div class=\"email-container\">");
-        html.append("<div class=\"header\">");
-        html.append("<h1>🏋️ WELLNEST</h1>");
-        html.append("<p style=\"margin: 5px 0 0 0; font-size: 14px;\">Smart Health & Fitness Companion</p>");
-        html.append("</div>");
-        html.append("<div class=\"content\">");
-        html.append("<h2>Password Reset Request</h2>");
-        html.append("<p>Hello,</p>");
-        html.append("<p class=\"info-text\">We received a request to reset your WellNest account password. Use the OTP code below to complete the password reset process.</p>");
-        html.append("<div class=\"otp-box\">");
-        html.append("<p style=\"margin: 0 0 10px 0; color: #666; font-size: 14px;\">Your OTP Code:</p>");
-        html.append("<div class=\"otp-code\">").append(otp).append("</div>");
-        html.append("<p style=\"margin: 10px 0 0 0; color: #999; font-size: 12px;\">Valid for 10 minutes</p>");
-        html.append("</div>");
-        html.append("<p class=\"info-text\">Alternatively, you can click the button below to reset your password directly:</p>");
-        html.append("<div style=\"text-align: center;\">");
-        html.append("<a href=\"http://localhost:8080/login.html\" class=\"reset-link\">Reset Password Now</a>");
-        html.append("</div>");
-        html.append("<div class=\"warning\"><strong>⚠️ Security Notice:</strong><br>If you didn't request this password reset, please ignore this email. Your account remains secure.</div>");
-        html.append("<p class=\"info-text\"><strong>Need help?</strong> Contact our support team if you have any questions.</p>");
-        html.append("</div>");
-        html.append("<div class=\"footer\">");
-        html.append("<p>© 2025 WellNest - Smart Health & Fitness Companion</p>");
-        html.append("<p><a href=\"http://localhost:8080\">Visit Website</a> | <a href=\"mailto:support@wellnest.com\">Contact Support</a></p>");
-        html.append("<p style=\"margin-top: 15px; color: #999;\">This is an automated email. Please do not reply to this message.</p>");
-        html.append("</div>");
-        html.append("</div>");
-        html.append("</body>");
-        html.append("</html>");
-        
-        return html.toString();
+    private MimeMessage toMimeMessage(OutgoingEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(FROM);
+        helper.setTo(email.to());
+        helper.setSubject(email.subject());
+        helper.setText(email.html(), true); // true = HTML
+        return message;
+    }
+
+    // Backoff doubles per attempt: 1s, 2s, 4s, ... (wellnest.mail.retry-backoff-ms)
+    private void retryLater(OutgoingEmail email, Exception cause) {
+        OutgoingEmail next = email.retry();
+        if (next.attempt() >= maxAttempts) {
+            giveUp(email, cause);
+            return;
+        }
+        retried.increment();
+        long delay = retryBackoffMs << (next.attempt() - 1);
+        retryScheduler.schedule(() -> {
+            if (!queue.offer(next)) {
+                giveUp(next, cause);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void giveUp(OutgoingEmail email, Exception cause) {
+        failed.increment();
+        log.error("Failed to send email to {}: {}", email.to(), cause.getMessage());
+    }
+
+    public Map<String, Object> stats() {
+        long batchCount = batches.sum();
+        long dequeuedCount = dequeued.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", mailSender != null);
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("sent", sent.sum());
+        stats.put("failed", failed.sum());
+        stats.put("retried", retried.sum());
+        stats.put("droppedQueueFull", dropped.sum());
+        stats.put("batches", batchCount);
+        stats.put("avgBatchSendMillis", batchCount > 0 ? batchNanos.sum() / batchCount / 1_000_000.0 : 0.0);
+        stats.put("maxBatchSendMillis", maxBatchNanos.get() / 1_000_000.0);
+        stats.put("avgQueuedMillis", dequeuedCount > 0 ? queuedNanos.sum() / dequeuedCount / 1_000_000.0 : 0.0);
+        return stats;
     }
 }
@@ -0,0 +1,68 @@
+package com.wellnest.wellnest.service;
+
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A text template with {{name}} placeholders, split into literal and
+ * placeholder parts once when loaded. Rendering is a single pass that appends
+ * the parts into a builder sized for the whole result.
+ */
+final class EmailTemplate {
+
+    private final String[] literals;   // literals[i] comes before names[i]; one more literal than names
+    private final String[] names;
+    private final int literalLength;
+
+    private EmailTemplate(List<String> literals, List<String> names) {
+        this.literals = literals.toArray(new String[0]);
+        this.names = names.toArray(new String[0]);
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    static EmailTemplate load(String classpathLocation) {
+        try (InputStream in = new ClassPathResource(classpathLocation).getInputStream()) {
+            return parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read email template " + classpathLocation, e);
+        }
+    }
+
+    static EmailTemplate parse(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf("{{", pos);
+            int close = open < 0 ? -1 : source.indexOf("}}", open + 2);
+            if (close < 0) {
+                literals.add(source.substring(pos));
+                return new EmailTemplate(literals, names);
+            }
+            literals.add(source.substring(pos, open));
+            names.add(source.substring(open + 2, close).trim());
+            pos = close + 2;
+        }
+    }
+
+    // Every placeholder must have a value; values are inserted as-is
+    String render(Map<String, String> values) {
+        StringBuilder out = new StringBuilder(literalLength + names.length * 16);
+        for (int i = 0; i < names.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(names[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("No value for template placeholder " + names[i]);
+            }
+            out.append(value);
+        }
+        return out.append(literals[names.length]).toString();
+    }
+}
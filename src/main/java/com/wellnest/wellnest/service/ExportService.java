@@ -0,0 +1,171 @@
+package com.wellnest.wellnest.service;
+
+import com.wellnest.wellnest.model.MealLog;
+import com.wellnest.wellnest.model.MealPlan;
+import com.wellnest.wellnest.model.Message;
+import com.wellnest.wellnest.model.WaterSleepLog;
+import com.wellnest.wellnest.model.WorkoutLog;
+import com.wellnest.wellnest.model.WorkoutPlan;
+import com.wellnest.wellnest.repository.MealLogRepository;
+import com.wellnest.wellnest.repository.MealPlanRepository;
+import com.wellnest.wellnest.repository.MessageRepository;
+import com.wellnest.wellnest.repository.WaterSleepLogRepository;
+import com.wellnest.wellnest.repository.WorkoutLogRepository;
+import com.wellnest.wellnest.repository.WorkoutPlanRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Full-history export of everything a user has logged or received
+ * (workouts, meals, water/sleep, workout and meal plans, messages).
+ *
+ * Each table is read as a streaming result set and every row is written
+ * and detached before the next one is fetched, so memory stays flat no
+ * matter how long the history is.
+ */
+@Service
+public class ExportService {
+
+    private final WorkoutLogRepository workoutRepo;
+    private final MealLogRepository mealRepo;
+    private final WaterSleepLogRepository waterSleepRepo;
+    private final WorkoutPlanRepository workoutPlanRepo;
+    private final MealPlanRepository mealPlanRepo;
+    private final MessageRepository messageRepo;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ExportService(WorkoutLogRepository workoutRepo,
+                         MealLogRepository mealRepo,
+                         WaterSleepLogRepository waterSleepRepo,
+                         WorkoutPlanRepository workoutPlanRepo,
+                         MealPlanRepository mealPlanRepo,
+                         MessageRepository messageRepo,
+                         ObjectMapper objectMapper) {
+        this.workoutRepo = workoutRepo;
+        this.mealRepo = mealRepo;
+        this.waterSleepRepo = waterSleepRepo;
+        this.workoutPlanRepo = workoutPlanRepo;
+        this.mealPlanRepo = mealPlanRepo;
+        this.messageRepo = messageRepo;
+        this.objectMapper = objectMapper;
+    }
+
+    // One JSON object per line: {"type":"workout","data":{...}}
+    @Transactional(readOnly = true)
+    public void writeNdjson(Long userId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        drain(workoutRepo.streamByUserIdOrderByIdAsc(userId), ndjsonLine(writer, "workout"));
+        drain(mealRepo.streamByUserIdOrderByIdAsc(userId), ndjsonLine(writer, "meal"));
+        drain(waterSleepRepo.streamByUserIdOrderByIdAsc(userId), ndjsonLine(writer, "waterSleep"));
+        drain(workoutPlanRepo.streamByUserIdOrderByIdAsc(userId), ndjsonLine(writer, "workoutPlan"));
+        drain(mealPlanRepo.streamByUserIdOrderByIdAsc(userId), ndjsonLine(writer, "mealPlan"));
+        drain(messageRepo.streamBySenderIdOrReceiverIdOrderByIdAsc(userId, userId), ndjsonLine(writer, "message"));
+
+        writer.flush();
+    }
+
+    // One section per record type; each section starts with its own header row
+    // and every row's first column is the record type.
+    @Transactional(readOnly = true)
+    public void writeCsv(Long userId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        writeRow(writer, "type", "id", "logDate", "logTime", "exerciseType", "durationMinutes", "caloriesBurned");
+        drain(workoutRepo.streamByUserIdOrderByIdAsc(userId), (WorkoutLog w) -> writeRow(writer,
+                "workout", w.getId(), w.getLogDate(), w.getLogTime(), w.getExerciseType(),
+                w.getDurationMinutes(), w.getCaloriesBurned()));
+
+        writeRow(writer, "type", "id", "logDate", "mealTime", "mealType", "description", "calories", "protein", "carbs");
+        drain(mealRepo.streamByUserIdOrderByIdAsc(userId), (MealLog m) -> writeRow(writer,
+                "meal", m.getId(), m.getLogDate(), m.getMealTime(), m.getMealType(), m.getDescription(),
+                m.getCalories(), m.getProtein(), m.getCarbs()));
+
+        writeRow(writer, "type", "id", "logDate", "logTime", "waterIntakeLiters", "sleepHours", "sleepQuality");
+        drain(waterSleepRepo.streamByUserIdOrderByIdAsc(userId), (WaterSleepLog ws) -> writeRow(writer,
+                "waterSleep", ws.getId(), ws.getLogDate(), ws.getLogTime(), ws.getWaterIntakeLiters(),
+                ws.getSleepHours(), ws.getSleepQuality()));
+
+        writeRow(writer, "type", "id", "trainerId", "assignedAt", "title", "description", "exercises");
+        drain(workoutPlanRepo.streamByUserIdOrderByIdAsc(userId), (WorkoutPlan p) -> writeRow(writer,
+                "workoutPlan", p.getId(), p.getTrainerId(), p.getAssignedAt(), p.getTitle(),
+                p.getDescription(), p.getExercises()));
+
+        writeRow(writer, "type", "id", "trainerId", "assignedAt", "title", "description", "meals");
+        drain(mealPlanRepo.streamByUserIdOrderByIdAsc(userId), (MealPlan p) -> writeRow(writer,
+                "mealPlan", p.getId(), p.getTrainerId(), p.getAssignedAt(), p.getTitle(),
+                p.getDescription(), p.getMeals()));
+
+        writeRow(writer, "type", "id", "senderId", "receiverId", "timestamp", "content");
+        drain(messageRepo.streamBySenderIdOrReceiverIdOrderByIdAsc(userId, userId), (Message m) -> writeRow(writer,
+                "message", m.getId(), m.getSenderId(), m.getReceiverId(), m.getTimestamp(), m.getContent()));
+
+        writer.flush();
+    }
+
+    private Consumer<Object> ndjsonLine(Writer writer, String type) {
+        return row -> {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("type", type);
+            line.put("data", row);
+            write(writer, objectMapper.writeValueAsString(line));
+            write(writer, "\n");
+        };
+    }
+
+    // Writes every row, detaching it afterwards so the persistence context stays empty
+    private <T> void drain(Stream<T> rows, Consumer<? super T> sink) {
+        try (rows) {
+            rows.forEach(row -> {
+                sink.accept(row);
+                entityManager.detach(row);
+            });
+        }
+    }
+
+    private static void writeRow(Writer writer, Object... values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) line.append(',');
+            line.append(csvField(values[i]));
+        }
+        line.append("\r\n");
+        write(writer, line.toString());
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) return "";
+        String s = value.toString();
+        if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+            return '"' + s.replace("\"", "\"\"") + '"';
+        }
+        return s;
+    }
+
+    private static void write(Writer writer, String s) {
+        try {
+            writer.write(s);
+        } catch (IOException e) {
+            // client went away; abort the stream (and the read-only transaction)
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.wellnest.wellnest.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.wellnest.wellnest.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+
+/**
+ * Default {@link OtpStore}: a Caffeine cache with per-entry expiry.
+ *
+ * Variable expiry is tracked in Caffeine's hierarchical timing wheel and the
+ * system scheduler evicts entries as they expire, so nothing outlives its TTL
+ * and there is no table to clean up. OTPs are lost on restart, which only
+ * means the user requests a new one.
+ */
+@Component
+@ConditionalOnProperty(name = "wellnest.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    // attempts is mutated only inside compute() on this entry's key
+    private static final class Entry {
+        final String otp;
+        final long expiresAtNanos;
+        int attempts;
+
+        Entry(String otp, long expiresAtNanos) {
+            this.otp = otp;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private final int maxAttempts;
+    private final Cache<String, Entry> entries;
+
+    public InMemoryOtpStore(@Value("${wellnest.otp.max-attempts:5}") int maxAttempts,
+                            @Value("${wellnest.otp.max-entries:100000}") long maxEntries) {
+        this.maxAttempts = maxAttempts;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return Math.max(0, entry.expiresAtNanos - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return Math.max(0, entry.expiresAtNanos - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .scheduler(Scheduler.systemScheduler())
+                .build();
+    }
+
+    @Override
+    public void put(String email, String otp, Duration ttl) {
+        entries.put(User.normalizeEmail(email), new Entry(otp, System.nanoTime() + ttl.toNanos()));
+    }
+
+    @Override
+    public Status check(String email, String otp) {
+        return verify(email, otp, false);
+    }
+
+    @Override
+    public Status consume(String email, String otp) {
+        return verify(email, otp, true);
+    }
+
+    private Status verify(String email, String otp, boolean consume) {
+        Status[] status = {Status.INVALID};
+        entries.asMap().computeIfPresent(User.normalizeEmail(email), (key, entry) -> {
+            if (System.nanoTime() >= entry.expiresAtNanos) {
+                status[0] = Status.EXPIRED;
+                return null;
+            }
+            if (!MessageDigest.isEqual(entry.otp.getBytes(StandardCharsets.UTF_8), otp.getBytes(StandardCharsets.UTF_8))) {
+                entry.attempts++;
+                if (entry.attempts >= maxAttempts) {
+                    status[0] = Status.TOO_MANY_ATTEMPTS;
+                    return null;
+                }
+                status[0] = Status.INVALID;
+                return entry;
+            }
+            status[0] = Status.VALID;
+            return consume ? null : entry;
+        });
+        return status[0];
+    }
+}
@@ -0,0 +1,109 @@
+package com.wellnest.wellnest.service;
+
+import com.wellnest.wellnest.model.PasswordResetToken;
+import com.wellnest.wellnest.model.User;
+import com.wellnest.wellnest.repository.PasswordResetTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Durable {@link OtpStore} on the password_reset_tokens table
+ * (wellnest.otp.store=jpa), for when OTPs must survive a restart or be shared
+ * between instances.
+ *
+ * Used and expired rows are deleted by a scheduled purge in small batches.
+ */
+@Component
+@ConditionalOnProperty(name = "wellnest.otp.store", havingValue = "jpa")
+public class JpaOtpStore implements OtpStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JpaOtpStore.class);
+
+    private final PasswordResetTokenRepository tokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final int purgeBatchSize;
+
+    public JpaOtpStore(PasswordResetTokenRepository tokenRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${wellnest.otp.max-attempts:5}") int maxAttempts,
+                       @Value("${wellnest.otp.purge-batch-size:1000}") int purgeBatchSize) {
+        this.tokenRepository = tokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    @Override
+    @Transactional
+    public void put(String email, String otp, Duration ttl) {
+        String key = User.normalizeEmail(email);
+        tokenRepository.deleteAllByEmail(key);
+        tokenRepository.save(new PasswordResetToken(key, otp, LocalDateTime.now().plus(ttl)));
+    }
+
+    @Override
+    @Transactional
+    public Status check(String email, String otp) {
+        return verify(email, otp, false);
+    }
+
+    @Override
+    @Transactional
+    public Status consume(String email, String otp) {
+        return verify(email, otp, true);
+    }
+
+    private Status verify(String email, String otp, boolean consume) {
+        PasswordResetToken token = tokenRepository
+                .findFirstByEmailAndUsedFalseOrderByIdDesc(User.normalizeEmail(email))
+                .orElse(null);
+
+        if (token == null) {
+            return Status.INVALID;
+        }
+        if (token.isExpired()) {
+            return Status.EXPIRED;
+        }
+        if (!MessageDigest.isEqual(token.getOtp().getBytes(StandardCharsets.UTF_8), otp.getBytes(StandardCharsets.UTF_8))) {
+            token.setAttempts(token.getAttempts() + 1);
+            if (token.getAttempts() >= maxAttempts) {
+                token.setUsed(true);
+                return Status.TOO_MANY_ATTEMPTS;
+            }
+            return Status.INVALID;
+        }
+        if (consume) {
+            token.setUsed(true);
+        }
+        return Status.VALID;
+    }
+
+    // Each batch is its own transaction so a large backlog never holds one long lock
+    @Scheduled(fixedDelayString = "${wellnest.otp.purge-interval:10m}")
+    public void purgeExpiredAndUsed() {
+        int deleted;
+        int total = 0;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            deleted = transactionTemplate.execute(status -> tokenRepository.deleteExpiredOrUsed(now, purgeBatchSize));
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+
+        if (total > 0) {
+            log.info("Purged {} expired/used password reset tokens", total);
+        }
+    }
+}
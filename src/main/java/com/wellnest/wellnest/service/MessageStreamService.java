@@ -0,0 +1,350 @@
+package com.wellnest.wellnest.service;
+
+import com.wellnest.wellnest.model.Message;
+import com.wellnest.wellnest.repository.MessageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent Events push channel for chat messages, one stream per user.
+ *
+ * A saved message is serialized once and queued to every open stream of its
+ * sender and receiver. Each connection has its own bounded buffer drained by
+ * the messagePushExecutor, so a slow client never holds up the request that
+ * sent the message. A connection whose buffer overflows is closed; the
+ * browser reconnects with Last-Event-ID (the last message id it saw) and the
+ * missed messages are replayed from the database. Live events that arrive
+ * while a replay is pending are held back and queued after it, so the client
+ * always sees ids in order; a replay that cannot be delivered in full turns
+ * into a "resync" event.
+ *
+ * Idle streams get a comment line every heartbeat interval so proxies keep
+ * them open and dead connections are noticed.
+ */
+@Service
+public class MessageStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageStreamService.class);
+
+    private static final Object HEARTBEAT = new Object();
+    private static final Event RESYNC = new Event(null, "resync", "{}");
+
+    private final MessageRepository messageRepository;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor pushExecutor;
+    private final Duration timeout;
+    private final int bufferSize;
+    private final int replayLimit;
+    private final int maxPerUser;
+
+    private final Map<Long, ConcurrentLinkedDeque<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final LongAdder pushed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    public MessageStreamService(MessageRepository messageRepository,
+                                ObjectMapper objectMapper,
+                                @Qualifier("messagePushExecutor") TaskExecutor pushExecutor,
+                                @Value("${wellnest.messages.stream.timeout:30m}") Duration timeout,
+                                @Value("${wellnest.messages.stream.buffer-size:256}") int bufferSize,
+                                @Value("${wellnest.messages.stream.replay-limit:200}") int replayLimit,
+                                @Value("${wellnest.messages.stream.max-per-user:5}") int maxPerUser) {
+        this.messageRepository = messageRepository;
+        this.objectMapper = objectMapper;
+        this.pushExecutor = pushExecutor;
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        this.replayLimit = replayLimit;
+        this.maxPerUser = maxPerUser;
+    }
+
+    // ========= SUBSCRIBE =========
+
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter, bufferSize, lastEventId != null);
+
+        ConcurrentLinkedDeque<Subscriber> mine = subscribers.computeIfAbsent(userId, k -> new ConcurrentLinkedDeque<>());
+        mine.addLast(subscriber);
+        open.incrementAndGet();
+        // too many tabs: the oldest stream gives way
+        while (mine.size() > maxPerUser) {
+            Subscriber oldest = mine.pollFirst();
+            if (oldest != null) oldest.close();
+        }
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        try {
+            emitter.send(SseEmitter.event().reconnectTime(3000).comment("connected"));
+        } catch (IOException e) {
+            subscriber.close();
+            return emitter;
+        }
+
+        if (lastEventId != null) {
+            // Not on the request thread: open-in-view would keep the query's
+            // connection bound to this request, i.e. for the life of the stream
+            try {
+                pushExecutor.execute(() -> replay(subscriber, lastEventId));
+            } catch (RejectedExecutionException e) {
+                subscriber.close();
+            }
+        }
+        return emitter;
+    }
+
+    // Messages after lastEventId, oldest first, then whatever arrived live meanwhile.
+    // If there are too many, or they don't all fit in the buffer, the client is told
+    // to reload instead: a gap it never hears about would be skipped for good once a
+    // newer id moves its Last-Event-ID on.
+    private void replay(Subscriber subscriber, Long lastEventId) {
+        int limit = Math.min(replayLimit, bufferSize - 1);
+        long lastReplayedId = lastEventId;
+        boolean resync = false;
+        try {
+            List<Message> missed = messageRepository.findForUserAfter(subscriber.userId, lastEventId, Limit.of(limit + 1));
+            if (missed.size() > limit) {
+                resync = true;
+            } else {
+                for (Message m : missed) {
+                    if (!subscriber.offer(toEvent(m))) {
+                        resync = true;
+                        break;
+                    }
+                    lastReplayedId = m.getId();
+                    replayed.increment();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Replay for user {} failed: {}", subscriber.userId, e.getMessage());
+            resync = true;
+        }
+        if (resync && !subscriber.offer(RESYNC)) {
+            subscriber.close();
+            return;
+        }
+        if (!subscriber.finishReplay(lastReplayedId)) {
+            overflowed.increment();
+            subscriber.close();
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    // ========= PUBLISH =========
+
+    public void publish(Message message) {
+        Event event = toEvent(message);
+        deliver(message.getSenderId(), event);
+        if (!message.getReceiverId().equals(message.getSenderId())) {
+            deliver(message.getReceiverId(), event);
+        }
+        pushed.increment();
+    }
+
+    private void deliver(Long userId, Event event) {
+        ConcurrentLinkedDeque<Subscriber> mine = subscribers.get(userId);
+        if (mine == null) return;
+        for (Subscriber s : mine) {
+            if (s.hold(event)) {
+                continue; // replay pending (queued once it is done) or already replayed
+            }
+            if (s.offer(event)) {
+                schedule(s);
+            } else {
+                // buffer full: drop the connection; the client reconnects and replays from its last id
+                overflowed.increment();
+                s.close();
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${wellnest.messages.stream.heartbeat:25s}")
+    public void heartbeat() {
+        for (ConcurrentLinkedDeque<Subscriber> mine : subscribers.values()) {
+            for (Subscriber s : mine) {
+                if (s.offerHeartbeat()) schedule(s);
+            }
+        }
+    }
+
+    private Event toEvent(Message message) {
+        return new Event(message.getId(), "message", objectMapper.writeValueAsString(message));
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return; // a drain is already running and will pick the new event up
+        }
+        try {
+            pushExecutor.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+            subscriber.close();
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Object next;
+            while ((next = subscriber.buffer.poll()) != null) {
+                if (next == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    Event e = (Event) next;
+                    SseEmitter.SseEventBuilder builder = SseEmitter.event().name(e.name()).data(e.json());
+                    if (e.id() != null) builder.id(e.id().toString());
+                    subscriber.emitter.send(builder);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // client went away (or the emitter already completed)
+            subscriber.close();
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // an event may have arrived between the last poll and clearing the flag
+        if (!subscriber.buffer.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("openStreams", open.get());
+        stats.put("usersConnected", subscribers.size());
+        stats.put("messagesPushed", pushed.sum());
+        stats.put("messagesReplayed", replayed.sum());
+        stats.put("overflowDisconnects", overflowed.sum());
+        return stats;
+    }
+
+    // ========= CONNECTIONS =========
+
+    private record Event(Long id, String name, String json) {}
+
+    private final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final Queue<Object> buffer;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final int capacity;
+
+        // live events that arrived while the replay was pending (guarded by heldLock;
+        // a ReentrantLock rather than synchronized so virtual threads don't pin)
+        private final ReentrantLock heldLock = new ReentrantLock();
+        private final List<Event> held = new ArrayList<>();
+        private boolean replaying;
+        private long replayedUpTo;
+
+        Subscriber(Long userId, SseEmitter emitter, int capacity, boolean replaying) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.capacity = capacity;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+            this.replaying = replaying;
+        }
+
+        boolean offer(Event event) {
+            return !closed.get() && buffer.offer(event);
+        }
+
+        // Keeps a live event back while the replay is pending; afterwards only swallows
+        // events the replay already sent (published after the replay query read them).
+        // False means the caller queues it as usual. Holding more than a buffer's
+        // worth overflows like a full buffer does.
+        boolean hold(Event event) {
+            heldLock.lock();
+            try {
+                if (!replaying) {
+                    return event.id() != null && event.id() <= replayedUpTo;
+                }
+                if (held.size() < capacity) {
+                    held.add(event);
+                    return true;
+                }
+            } finally {
+                heldLock.unlock();
+            }
+            overflowed.increment();
+            close();
+            return true;
+        }
+
+        // Queues the held events behind the replayed ones, skipping those the replay
+        // already covered; false if they don't fit
+        boolean finishReplay(long lastReplayedId) {
+            heldLock.lock();
+            try {
+                for (Event e : held) {
+                    if (e.id() != null && e.id() <= lastReplayedId) continue;
+                    if (!offer(e)) return false;
+                }
+                return true;
+            } finally {
+                held.clear();
+                replaying = false;
+                replayedUpTo = lastReplayedId;
+                heldLock.unlock();
+            }
+        }
+
+        // no point queueing a heartbeat behind real events
+        boolean offerHeartbeat() {
+            return !closed.get() && buffer.isEmpty() && buffer.offer(HEARTBEAT);
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            open.decrementAndGet();
+            subscribers.computeIfPresent(userId, (k, mine) -> {
+                mine.remove(this);
+                return mine.isEmpty() ? null : mine;
+            });
+            buffer.clear();
+            heldLock.lock();
+            try {
+                held.clear();
+            } finally {
+                heldLock.unlock();
+            }
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                log.debug("Stream for user {} already completed", userId);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.wellnest.wellnest.service;
+
+import com.wellnest.wellnest.config.RequestMetricsFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the request, SQL and connection-pool meters back out of the registry
+ * as one admin report. Endpoints and controllers are sorted by total time
+ * spent, i.e. by how much capacity they use. Streaming responses are listed
+ * on their own since their duration is connection time, not latency.
+ */
+@Service
+public class MetricsReport {
+
+    private final MeterRegistry registry;
+
+    public MetricsReport(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public Map<String, Object> report() {
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        Map<String, double[]> controllers = new TreeMap<>(); // count, total ms, sql statements, sql ms
+
+        for (Timer timer : registry.find(RequestMetricsFilter.REQUESTS).timers()) {
+            String controller = timer.getId().getTag("controller");
+            String method = timer.getId().getTag("method");
+            DistributionSummary sqlStatements = registry.find(RequestMetricsFilter.SQL_STATEMENTS)
+                    .tags("controller", controller, "method", method).summary();
+            Timer sqlTime = registry.find(RequestMetricsFilter.SQL_TIME)
+                    .tags("controller", controller, "method", method).timer();
+
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("controller", controller);
+            endpoint.put("method", method);
+            endpoint.put("count", snapshot.count());
+            endpoint.put("totalMillis", round(snapshot.total(TimeUnit.MILLISECONDS)));
+            endpoint.put("meanMillis", round(snapshot.mean(TimeUnit.MILLISECONDS)));
+            endpoint.put("maxMillis", round(snapshot.max(TimeUnit.MILLISECONDS)));
+            for (ValueAtPercentile p : snapshot.percentileValues()) {
+                endpoint.put("p" + Math.round(p.percentile() * 100) + "Millis", round(p.value(TimeUnit.MILLISECONDS)));
+            }
+            if (sqlStatements != null) {
+                endpoint.put("sqlStatementsPerRequest", round(sqlStatements.mean()));
+                endpoint.put("sqlStatementsMax", round(sqlStatements.max()));
+            }
+            if (sqlTime != null) {
+                endpoint.put("sqlMillisPerRequest", round(sqlTime.mean(TimeUnit.MILLISECONDS)));
+            }
+            endpoints.add(endpoint);
+
+            double[] totals = controllers.computeIfAbsent(controller, k -> new double[4]);
+            totals[0] += snapshot.count();
+            totals[1] += snapshot.total(TimeUnit.MILLISECONDS);
+            totals[2] += sqlStatements != null ? sqlStatements.totalAmount() : 0;
+            totals[3] += sqlTime != null ? sqlTime.totalTime(TimeUnit.MILLISECONDS) : 0;
+        }
+        endpoints.sort(Comparator.comparingDouble((Map<String, Object> e) -> (Double) e.get("totalMillis")).reversed());
+
+        double allMillis = controllers.values().stream().mapToDouble(t -> t[1]).sum();
+        List<Map<String, Object>> byController = new ArrayList<>();
+        controllers.forEach((name, t) -> {
+            Map<String, Object> c = new LinkedHashMap<>();
+            c.put("controller", name);
+            c.put("count", (long) t[0]);
+            c.put("totalMillis", round(t[1]));
+            c.put("shareOfTime", allMillis > 0 ? round(t[1] / allMillis) : 0.0);
+            c.put("sqlStatements", (long) t[2]);
+            c.put("sqlMillis", round(t[3]));
+            byController.add(c);
+        });
+        byController.sort(Comparator.comparingDouble((Map<String, Object> c) -> (Double) c.get("totalMillis")).reversed());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("controllers", byController);
+        report.put("endpoints", endpoints);
+        report.put("streams", streams());
+        report.put("sql", sql());
+        report.put("connectionPools", connectionPools());
+        return report;
+    }
+
+    private List<Map<String, Object>> streams() {
+        List<Map<String, Object>> streams = new ArrayList<>();
+        for (Timer timer : registry.find(RequestMetricsFilter.STREAMS).timers()) {
+            Map<String, Object> stream = new LinkedHashMap<>();
+            stream.put("controller", timer.getId().getTag("controller"));
+            stream.put("method", timer.getId().getTag("method"));
+            stream.put("count", timer.count());
+            stream.put("meanMillis", round(timer.mean(TimeUnit.MILLISECONDS)));
+            stream.put("maxMillis", round(timer.max(TimeUnit.MILLISECONDS)));
+            streams.add(stream);
+        }
+        return streams;
+    }
+
+    private Map<String, Object> sql() {
+        Map<String, Object> sql = new LinkedHashMap<>();
+        Timer statements = registry.find("wellnest.sql.statements").timer();
+        sql.put("statements", statements != null ? statements.count() : 0);
+        sql.put("totalMillis", statements != null ? round(statements.totalTime(TimeUnit.MILLISECONDS)) : 0.0);
+        sql.put("meanMillis", statements != null ? round(statements.mean(TimeUnit.MILLISECONDS)) : 0.0);
+        sql.put("maxMillis", statements != null ? round(statements.max(TimeUnit.MILLISECONDS)) : 0.0);
+        return sql;
+    }
+
+    // Hikari gauges per pool: active, idle, pending (threads waiting for a connection)
+    private List<Map<String, Object>> connectionPools() {
+        TreeSet<String> pools = new TreeSet<>();
+        registry.find("hikaricp.connections.active").gauges().forEach(g -> pools.add(g.getId().getTag("pool")));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (String pool : pools) {
+            Map<String, Object> p = new LinkedHashMap<>();
+            p.put("pool", pool);
+            p.put("active", gauge("hikaricp.connections.active", pool));
+            p.put("idle", gauge("hikaricp.connections.idle", pool));
+            p.put("pending", gauge("hikaricp.connections.pending", pool));
+            p.put("total", gauge("hikaricp.connections", pool));
+            p.put("max", gauge("hikaricp.connections.max", pool));
+            Timer acquire = registry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+            if (acquire != null) {
+                p.put("acquireMeanMillis", round(acquire.mean(TimeUnit.MILLISECONDS)));
+                p.put("acquireMaxMillis", round(acquire.max(TimeUnit.MILLISECONDS)));
+            }
+            Counter timeouts = registry.find("hikaricp.connections.timeout").tag("pool", pool).counter();
+            p.put("timeouts", timeouts != null ? (long) timeouts.count() : 0L);
+            result.add(p);
+        }
+        return result;
+    }
+
+    private Object gauge(String name, String pool) {
+        Gauge gauge = registry.find(name).tag("pool", pool).gauge();
+        return gauge != null ? (long) gauge.value() : null;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
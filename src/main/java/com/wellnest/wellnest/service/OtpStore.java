@@ -0,0 +1,25 @@
+package com.wellnest.wellnest.service;
+
+import java.time.Duration;
+
+/**
+ * One-time passwords for the forgot/reset password flow.
+ *
+ * Each email has at most one live OTP; issuing a new one replaces the old
+ * one and resets its failed-attempt count. After too many wrong guesses the
+ * OTP is dropped and the user has to request a new one.
+ *
+ * Emails are compared in normalized form (see User.normalizeEmail).
+ */
+public interface OtpStore {
+
+    enum Status { VALID, INVALID, EXPIRED, TOO_MANY_ATTEMPTS }
+
+    void put(String email, String otp, Duration ttl);
+
+    // Checks the OTP without using it up (verify step of the UI)
+    Status check(String email, String otp);
+
+    // Checks the OTP and, if valid, removes it so it cannot be used again
+    Status consume(String email, String otp);
+}
@@ -0,0 +1,112 @@
+package com.wellnest.wellnest.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt hashing and verification on the passwordHashExecutor pool.
+ *
+ * Rows written before hashing was introduced still hold the plaintext
+ * password; {@link #matches} accepts those and {@link #needsRehash} tells the
+ * caller to store a hash after a successful login. The same applies when the
+ * configured cost changes.
+ */
+@Service
+public class PasswordService {
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolTaskExecutor executor;
+
+    // verified against when the email is unknown, so both cases take the same time
+    private final String dummyHash;
+
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordService(@Value("${wellnest.auth.bcrypt-cost:10}") int cost,
+                           @Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor executor) {
+        this.encoder = new BCryptPasswordEncoder(cost);
+        this.executor = executor;
+        this.dummyHash = encoder.encode("wellnest-dummy-password");
+    }
+
+    public CompletableFuture<String> hash(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    // storedPassword may be null (unknown user): checked against a dummy hash and always false
+    public CompletableFuture<Boolean> matches(String rawPassword, String storedPassword) {
+        if (storedPassword == null) {
+            return submit(() -> {
+                encoder.matches(rawPassword, dummyHash);
+                return false;
+            });
+        }
+        if (!isHashed(storedPassword)) {
+            // legacy plaintext row; constant-time compare, no pool needed
+            return CompletableFuture.completedFuture(MessageDigest.isEqual(
+                    rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8)));
+        }
+        return submit(() -> encoder.matches(rawPassword, storedPassword));
+    }
+
+    public boolean needsRehash(String storedPassword) {
+        return !isHashed(storedPassword) || encoder.upgradeEncoding(storedPassword);
+    }
+
+    public static boolean isHashed(String storedPassword) {
+        return storedPassword.startsWith("$2a$")
+                || storedPassword.startsWith("$2b$")
+                || storedPassword.startsWith("$2y$");
+    }
+
+    // Runs one BCrypt operation on the pool, timing it. A full queue fails the
+    // future with RejectedExecutionException instead of throwing to the caller.
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    return work.get();
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    hashes.increment();
+                    hashNanos.add(elapsed);
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long count = hashes.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", executor.getPoolSize());
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueueSize());
+        stats.put("hashes", count);
+        stats.put("avgHashMillis", count > 0 ? hashNanos.sum() / count / 1_000_000.0 : 0.0);
+        stats.put("maxHashMillis", maxHashNanos.get() / 1_000_000.0);
+        stats.put("rejected", rejected.sum());
+        return stats;
+    }
+}
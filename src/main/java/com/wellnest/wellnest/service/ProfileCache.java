@@ -0,0 +1,99 @@
+package com.wellnest.wellnest.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.wellnest.wellnest.model.User;
+import com.wellnest.wellnest.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.ObjectMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through cache of GET /api/profile responses, keyed by normalized email.
+ *
+ * Entries hold the already-serialized JSON and its strong ETag (SHA-256 of
+ * the bytes), so a hit costs neither a query nor serialization, and a
+ * revalidation that matches costs nothing but the header compare.
+ *
+ * Every change to a User row goes through {@link UserCacheListener}, which
+ * evicts the entry once the writing transaction has finished.
+ */
+@Service
+public class ProfileCache {
+
+    public record CachedProfile(byte[] json, String etag) {}
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CachedProfile> profiles;
+
+    public ProfileCache(UserRepository userRepository,
+                        ObjectMapper objectMapper,
+                        @Value("${wellnest.profile-cache.max-size:10000}") long maxSize,
+                        @Value("${wellnest.profile-cache.ttl:30m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // Empty when there is no such user; misses are not cached
+    public Optional<CachedProfile> get(String email) {
+        String key = User.normalizeEmail(email);
+        return Optional.ofNullable(profiles.get(key, k -> userRepository.findByEmailNormalized(k)
+                .map(this::serialize)
+                .orElse(null)));
+    }
+
+    public void invalidate(String email) {
+        String key = User.normalizeEmail(email);
+        if (key == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    profiles.invalidate(key);
+                }
+            });
+        } else {
+            profiles.invalidate(key);
+        }
+    }
+
+    private CachedProfile serialize(User user) {
+        byte[] json = objectMapper.writeValueAsBytes(user);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return new CachedProfile(json, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats s = profiles.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", profiles.estimatedSize());
+        stats.put("hits", s.hitCount());
+        stats.put("misses", s.missCount());
+        stats.put("hitRate", s.hitRate());
+        stats.put("evictions", s.evictionCount());
+        return stats;
+    }
+}
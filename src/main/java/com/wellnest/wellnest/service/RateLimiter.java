@@ -0,0 +1,131 @@
+package com.wellnest.wellnest.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wellnest.wellnest.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets for the auth endpoints, one per client IP and one per
+ * (purpose, email).
+ *
+ * Buckets live in a size-bounded cache and are dropped after sitting idle,
+ * so an attack with many distinct keys cannot grow memory without limit; a
+ * bucket that comes back is simply full again. Refill-and-take runs under
+ * one of a fixed set of striped locks chosen by key hash, so unrelated keys
+ * rarely contend and no lock object is allocated per bucket.
+ */
+@Service
+public class RateLimiter {
+
+    public enum Kind { IP, EMAIL }
+
+    private static final int STRIPES = 64;
+
+    // guarded by the stripe lock for its key
+    private static final class Bucket {
+        double tokens;
+        long refilledAtNanos;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAtNanos = now;
+        }
+    }
+
+    private final boolean enabled;
+    private final double ipCapacity;
+    private final double ipRefillPerNano;
+    private final double emailCapacity;
+    private final double emailRefillPerNano;
+
+    private final Cache<String, Bucket> buckets;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByIp = new LongAdder();
+    private final LongAdder rejectedByEmail = new LongAdder();
+
+    public RateLimiter(@Value("${wellnest.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${wellnest.rate-limit.ip.capacity:30}") int ipCapacity,
+                       @Value("${wellnest.rate-limit.ip.refill-per-minute:30}") int ipRefillPerMinute,
+                       @Value("${wellnest.rate-limit.email.capacity:5}") int emailCapacity,
+                       @Value("${wellnest.rate-limit.email.refill-per-minute:5}") int emailRefillPerMinute,
+                       @Value("${wellnest.rate-limit.max-buckets:100000}") long maxBuckets,
+                       @Value("${wellnest.rate-limit.idle-timeout:15m}") Duration idleTimeout) {
+        this.enabled = enabled;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerNano = ipRefillPerMinute / (double) Duration.ofMinutes(1).toNanos();
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPerNano = emailRefillPerMinute / (double) Duration.ofMinutes(1).toNanos();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Takes one token from the client's IP bucket and, if email is given, from
+     * the (purpose, email) bucket. Returns the limit that was hit, or null if
+     * the request may proceed.
+     */
+    public Kind tryAcquire(String clientIp, String purpose, String email) {
+        if (!enabled) {
+            return null;
+        }
+        if (!take("ip:" + clientIp, ipCapacity, ipRefillPerNano)) {
+            rejectedByIp.increment();
+            return Kind.IP;
+        }
+        if (email != null && !take(purpose + ":" + User.normalizeEmail(email), emailCapacity, emailRefillPerNano)) {
+            rejectedByEmail.increment();
+            return Kind.EMAIL;
+        }
+        allowed.increment();
+        return null;
+    }
+
+    private boolean take(String key, double capacity, double refillPerNano) {
+        ReentrantLock lock = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            Bucket bucket = buckets.get(key, k -> new Bucket(capacity, now));
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAtNanos) * refillPerNano);
+            bucket.refilledAtNanos = now;
+            if (bucket.tokens < 1.0) {
+                return false;
+            }
+            bucket.tokens -= 1.0;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Seconds until one token is back in a bucket of this kind (for Retry-After)
+    public long retryAfterSeconds(Kind kind) {
+        double perNano = kind == Kind.IP ? ipRefillPerNano : emailRefillPerNano;
+        return Math.max(1, (long) Math.ceil(1.0 / perNano / 1_000_000_000.0));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("buckets", buckets.estimatedSize());
+        stats.put("allowed", allowed.sum());
+        stats.put("rejectedByIp", rejectedByIp.sum());
+        stats.put("rejectedByEmail", rejectedByEmail.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,134 @@
+package com.wellnest.wellnest.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wellnest.wellnest.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Stateless access tokens: base64url("userId:role:expiresAtEpochSeconds")
+ * + "." + base64url(HMAC-SHA256 of that payload).
+ *
+ * Verification needs no database access. Tokens that verified recently are
+ * kept in a small cache so repeat requests skip the HMAC; the expiry is still
+ * checked on every call.
+ */
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    public record Claims(Long userId, String role, long expiresAt) {
+        boolean isExpired(long nowEpochSeconds) {
+            return nowEpochSeconds >= expiresAt;
+        }
+    }
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Cache<String, Claims> verified;
+
+    // Mac instances are not thread-safe; one per thread avoids re-initialising per call
+    private final ThreadLocal<Mac> mac;
+
+    public TokenService(@Value("${wellnest.auth.token-secret:}") String secret,
+                        @Value("${wellnest.auth.token-ttl:24h}") Duration ttl,
+                        @Value("${wellnest.auth.verified-cache-size:10000}") long verifiedCacheSize) {
+        byte[] secretBytes;
+        if (secret == null || secret.isBlank()) {
+            // tokens then only survive until the next restart
+            secretBytes = new byte[32];
+            new SecureRandom().nextBytes(secretBytes);
+            log.warn("wellnest.auth.token-secret is not set; using a random key for this run");
+        } else {
+            secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(secretBytes, ALGORITHM);
+        this.ttl = ttl;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .build();
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac m = Mac.getInstance(ALGORITHM);
+                m.init(key);
+                return m;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    public String issue(User user) {
+        long expiresAt = Instant.now().plus(ttl).getEpochSecond();
+        String payload = user.getId() + ":" + user.getRole() + ":" + expiresAt;
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload));
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public Optional<Claims> verify(String token) {
+        long now = Instant.now().getEpochSecond();
+
+        Claims cached = verified.getIfPresent(token);
+        if (cached != null) {
+            return cached.isExpired(now) ? Optional.empty() : Optional.of(cached);
+        }
+
+        Claims claims = parse(token);
+        if (claims == null || claims.isExpired(now)) {
+            return Optional.empty();
+        }
+        verified.put(token, claims);
+        return Optional.of(claims);
+    }
+
+    // Returns null for anything malformed or wrongly signed
+    private Claims parse(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return null;
+        }
+        String encodedPayload = token.substring(0, dot);
+        try {
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(encodedPayload))) {
+                return null;
+            }
+            String[] parts = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                return null;
+            }
+            return new Claims(Long.valueOf(parts[0]), parts[1], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // bad base64 or number
+            return null;
+        }
+    }
+
+    private byte[] sign(String encodedPayload) {
+        return mac.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    }
+}
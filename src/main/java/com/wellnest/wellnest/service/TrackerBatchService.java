@@ -0,0 +1,166 @@
+package com.wellnest.wellnest.service;
+
+import com.wellnest.wellnest.model.DailySummary;
+import com.wellnest.wellnest.model.MealLog;
+import com.wellnest.wellnest.model.WaterSleepLog;
+import com.wellnest.wellnest.model.WorkoutLog;
+import com.wellnest.wellnest.repository.DailySummaryRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a mixed batch of tracker entries in a single transaction.
+ *
+ * Inserts go through JdbcTemplate batch updates rather than repository.save():
+ * the log tables use IDENTITY ids, which make Hibernate insert row by row.
+ * With rewriteBatchedStatements=true on the MySQL URL each batch is sent as
+ * one multi-row INSERT. The daily summaries are bumped once per (user, day)
+ * touched by the batch, inside the same transaction, and the cached
+ * analytics for those days are evicted once it commits.
+ */
+@Service
+public class TrackerBatchService {
+
+    // rows per JDBC batch (one multi-row INSERT each)
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_WORKOUT =
+            "INSERT INTO workout_logs (user_id, log_date, log_time, exercise_type, duration_minutes, calories_burned) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_MEAL =
+            "INSERT INTO meal_logs (user_id, log_date, meal_time, meal_type, description, calories, protein, carbs) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_WATER_SLEEP =
+            "INSERT INTO water_sleep_logs (user_id, log_date, log_time, water_intake_liters, sleep_hours, sleep_quality) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DailySummaryRepository summaryRepo;
+    private final AnalyticsCache analyticsCache;
+
+    public TrackerBatchService(JdbcTemplate jdbcTemplate,
+                               DailySummaryRepository summaryRepo,
+                               AnalyticsCache analyticsCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.summaryRepo = summaryRepo;
+        this.analyticsCache = analyticsCache;
+    }
+
+    @Transactional
+    public Map<String, Integer> saveAll(Long userId,
+                                        List<WorkoutLog> workouts,
+                                        List<MealLog> meals,
+                                        List<WaterSleepLog> waterSleepLogs) {
+        LocalDate today = LocalDate.now();
+        LocalTime now = LocalTime.now();
+
+        for (WorkoutLog w : workouts) {
+            if (w.getUserId() == null) w.setUserId(userId);
+            if (w.getLogDate() == null) w.setLogDate(today);
+            if (w.getLogTime() == null) w.setLogTime(now);
+        }
+        for (MealLog m : meals) {
+            if (m.getUserId() == null) m.setUserId(userId);
+            if (m.getLogDate() == null) m.setLogDate(today);
+            if (m.getMealTime() == null) m.setMealTime(now);
+        }
+        for (WaterSleepLog ws : waterSleepLogs) {
+            if (ws.getUserId() == null) ws.setUserId(userId);
+            if (ws.getLogDate() == null) ws.setLogDate(today);
+            if (ws.getLogTime() == null) ws.setLogTime(now);
+            if (ws.getWaterIntakeLiters() == null) ws.setWaterIntakeLiters(0.0);
+            if (ws.getSleepHours() == null) ws.setSleepHours(0.0);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_WORKOUT, workouts, BATCH_SIZE, (ps, w) -> {
+            ps.setObject(1, w.getUserId());
+            ps.setObject(2, w.getLogDate());
+            ps.setObject(3, w.getLogTime());
+            ps.setString(4, w.getExerciseType());
+            ps.setObject(5, w.getDurationMinutes());
+            ps.setObject(6, w.getCaloriesBurned());
+        });
+
+        jdbcTemplate.batchUpdate(INSERT_MEAL, meals, BATCH_SIZE, (ps, m) -> {
+            ps.setObject(1, m.getUserId());
+            ps.setObject(2, m.getLogDate());
+            ps.setObject(3, m.getMealTime());
+            ps.setString(4, m.getMealType());
+            ps.setString(5, m.getDescription());
+            ps.setObject(6, m.getCalories());
+            ps.setObject(7, m.getProtein());
+            ps.setObject(8, m.getCarbs());
+        });
+
+        jdbcTemplate.batchUpdate(INSERT_WATER_SLEEP, waterSleepLogs, BATCH_SIZE, (ps, ws) -> {
+            ps.setObject(1, ws.getUserId());
+            ps.setObject(2, ws.getLogDate());
+            ps.setObject(3, ws.getLogTime());
+            ps.setObject(4, ws.getWaterIntakeLiters());
+            ps.setObject(5, ws.getSleepHours());
+            ps.setString(6, ws.getSleepQuality());
+        });
+
+        updateSummaries(workouts, meals, waterSleepLogs);
+
+        Map<String, Integer> counts = new HashMap<>();
+        counts.put("workouts", workouts.size());
+        counts.put("meals", meals.size());
+        counts.put("waterSleep", waterSleepLogs.size());
+        counts.put("total", workouts.size() + meals.size() + waterSleepLogs.size());
+        return counts;
+    }
+
+    // Folds the batch into one delta per (user, day) and applies each with a single upsert
+    private void updateSummaries(List<WorkoutLog> workouts, List<MealLog> meals, List<WaterSleepLog> waterSleepLogs) {
+        Map<Long, Map<LocalDate, DailySummary>> deltas = new HashMap<>();
+
+        for (WorkoutLog w : workouts) {
+            DailySummary d = delta(deltas, w.getUserId(), w.getLogDate());
+            d.setWorkoutMinutes(d.getWorkoutMinutes() + TrackerService.orZero(w.getDurationMinutes()));
+            d.setWorkoutSessions(d.getWorkoutSessions() + 1);
+            d.setCaloriesBurned(d.getCaloriesBurned() + TrackerService.orZero(w.getCaloriesBurned()));
+        }
+        for (MealLog m : meals) {
+            DailySummary d = delta(deltas, m.getUserId(), m.getLogDate());
+            d.setCaloriesEaten(d.getCaloriesEaten() + TrackerService.orZero(m.getCalories()));
+            d.setProtein(d.getProtein() + TrackerService.orZero(m.getProtein()));
+            d.setCarbs(d.getCarbs() + TrackerService.orZero(m.getCarbs()));
+        }
+        for (WaterSleepLog ws : waterSleepLogs) {
+            DailySummary d = delta(deltas, ws.getUserId(), ws.getLogDate());
+            d.setWaterLiters(d.getWaterLiters() + ws.getWaterIntakeLiters());
+            d.setSleepHours(d.getSleepHours() + ws.getSleepHours());
+            d.setWaterSleepEntries(d.getWaterSleepEntries() + 1);
+        }
+
+        for (Map.Entry<Long, Map<LocalDate, DailySummary>> perUser : deltas.entrySet()) {
+            for (DailySummary d : perUser.getValue().values()) {
+                summaryRepo.addToDay(d.getUserId(), d.getSummaryDate(),
+                        d.getWorkoutMinutes(), d.getWorkoutSessions(), d.getCaloriesBurned(),
+                        d.getCaloriesEaten(), d.getProtein(), d.getCarbs(),
+                        d.getWaterLiters(), d.getSleepHours(), d.getWaterSleepEntries());
+            }
+            analyticsCache.invalidate(perUser.getKey(), perUser.getValue().keySet());
+        }
+    }
+
+    private static DailySummary delta(Map<Long, Map<LocalDate, DailySummary>> deltas, Long userId, LocalDate day) {
+        return deltas.computeIfAbsent(userId, k -> new HashMap<>())
+                .computeIfAbsent(day, k -> {
+                    DailySummary d = new DailySummary();
+                    d.setUserId(userId);
+                    d.setSummaryDate(day);
+                    return d;
+                });
+    }
+}
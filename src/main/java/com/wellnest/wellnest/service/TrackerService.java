@@ -0,0 +1,329 @@
+package com.wellnest.wellnest.service;
+
+import com.wellnest.wellnest.model.DailySummary;
+import com.wellnest.wellnest.model.MealLog;
+import com.wellnest.wellnest.model.WaterSleepLog;
+import com.wellnest.wellnest.model.WorkoutLog;
+import com.wellnest.wellnest.repository.DailySummaryRepository;
+import com.wellnest.wellnest.repository.MealLogRepository;
+import com.wellnest.wellnest.repository.WaterSleepLogRepository;
+import com.wellnest.wellnest.repository.WorkoutLogRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Tracker writes, the dashboard/weekly analytics and the timeline read.
+ *
+ * Every write also bumps the user's {@link DailySummary} row for that day in
+ * the same transaction, so the analytics read at most 7 summary rows instead
+ * of every raw log in the window. The 7-day views are additionally cached
+ * in {@link AnalyticsCache} until the user logs something in their window.
+ */
+@Service
+public class TrackerService {
+
+    private final WorkoutLogRepository workoutRepo;
+    private final MealLogRepository mealRepo;
+    private final WaterSleepLogRepository waterSleepRepo;
+    private final DailySummaryRepository summaryRepo;
+    private final AnalyticsCache analyticsCache;
+    private final Executor queryExecutor;
+    private final Duration queryTimeout;
+    private final boolean rebuildMissingSummaries;
+
+    public TrackerService(WorkoutLogRepository workoutRepo,
+                          MealLogRepository mealRepo,
+                          WaterSleepLogRepository waterSleepRepo,
+                          DailySummaryRepository summaryRepo,
+                          AnalyticsCache analyticsCache,
+                          @Qualifier("trackerQueryExecutor") Executor queryExecutor,
+                          @Value("${wellnest.tracker.query-timeout:5s}") Duration queryTimeout,
+                          @Value("${wellnest.tracker.rebuild-missing-summaries:false}") boolean rebuildMissingSummaries) {
+        this.workoutRepo = workoutRepo;
+        this.mealRepo = mealRepo;
+        this.waterSleepRepo = waterSleepRepo;
+        this.summaryRepo = summaryRepo;
+        this.analyticsCache = analyticsCache;
+        this.queryExecutor = queryExecutor;
+        this.queryTimeout = queryTimeout;
+        this.rebuildMissingSummaries = rebuildMissingSummaries;
+    }
+
+    // ========= WRITES =========
+
+    @Transactional
+    public WorkoutLog saveWorkout(WorkoutLog log) {
+        WorkoutLog saved = workoutRepo.save(log);
+        summaryRepo.addToDay(saved.getUserId(), saved.getLogDate(),
+                orZero(saved.getDurationMinutes()), 1, orZero(saved.getCaloriesBurned()),
+                0, 0, 0, 0.0, 0.0, 0);
+        analyticsCache.invalidate(saved.getUserId(), List.of(saved.getLogDate()));
+        return saved;
+    }
+
+    @Transactional
+    public MealLog saveMeal(MealLog log) {
+        MealLog saved = mealRepo.save(log);
+        summaryRepo.addToDay(saved.getUserId(), saved.getLogDate(),
+                0, 0, 0,
+                orZero(saved.getCalories()), orZero(saved.getProtein()), orZero(saved.getCarbs()),
+                0.0, 0.0, 0);
+        analyticsCache.invalidate(saved.getUserId(), List.of(saved.getLogDate()));
+        return saved;
+    }
+
+    @Transactional
+    public WaterSleepLog saveWaterSleep(WaterSleepLog log) {
+        WaterSleepLog saved = waterSleepRepo.save(log);
+        summaryRepo.addToDay(saved.getUserId(), saved.getLogDate(),
+                0, 0, 0, 0, 0, 0,
+                orZero(saved.getWaterIntakeLiters()), orZero(saved.getSleepHours()), 1);
+        analyticsCache.invalidate(saved.getUserId(), List.of(saved.getLogDate()));
+        return saved;
+    }
+
+    // Fills in the rollup for every (user, day) that has raw logs but no summary row.
+    // The rebuild scans all three log tables, so on its own it only runs while the
+    // table is empty (first start after it was introduced on an existing database).
+    // Repairing days missing from a populated table is opt-in: start once with
+    // wellnest.tracker.rebuild-missing-summaries=true. A day that already has a row
+    // is trusted as is.
+    @Transactional
+    public int backfillSummaries() {
+        if (!rebuildMissingSummaries && summaryRepo.existsByIdIsNotNull()) {
+            return 0;
+        }
+        return summaryRepo.rebuildMissingDays();
+    }
+
+    // ========= ANALYTICS =========
+
+    // Both 7-day views are cached per (user, today); the write paths evict them.
+    // No surrounding transaction, so a cache hit never touches the pool.
+    public Map<String, Object> getDashboardStats(Long userId, LocalDate today) {
+        return analyticsCache.get(AnalyticsCache.DASHBOARD, userId, today, () -> {
+            LocalDate sevenDaysAgo = today.minusDays(6);
+            List<DailySummary> days = summaryRepo.findByUserIdAndSummaryDateBetween(userId, sevenDaysAgo, today);
+            return buildDashboard(sevenDaysAgo, days);
+        });
+    }
+
+    public Map<String, Object> getWeeklyAnalytics(Long userId, LocalDate today) {
+        return analyticsCache.get(AnalyticsCache.WEEKLY, userId, today, () -> {
+            LocalDate startDate = today.minusDays(6); // last 7 days
+            List<DailySummary> days = summaryRepo.findByUserIdAndSummaryDateBetween(userId, startDate, today);
+            return buildWeekly(startDate, today, days);
+        });
+    }
+
+    // All three log kinds plus the per-day rollup for [start, end] in one response.
+    // The four reads are independent, so they run concurrently on the query pool;
+    // each is its own read-only repository transaction.
+    public Map<String, Object> getTimeline(Long userId, LocalDate start, LocalDate end) {
+        CompletableFuture<List<WorkoutLog>> workouts = query(
+                () -> workoutRepo.findByUserIdAndLogDateBetween(userId, start, end));
+        CompletableFuture<List<MealLog>> meals = query(
+                () -> mealRepo.findByUserIdAndLogDateBetween(userId, start, end));
+        CompletableFuture<List<WaterSleepLog>> waterSleep = query(
+                () -> waterSleepRepo.findByUserIdAndLogDateBetween(userId, start, end));
+        CompletableFuture<List<DailySummary>> days = query(
+                () -> summaryRepo.findByUserIdAndSummaryDateBetweenOrderBySummaryDateAsc(userId, start, end));
+
+        long deadline = System.nanoTime() + queryTimeout.toNanos();
+        List<String> missing = new ArrayList<>();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("startDate", start);
+        result.put("endDate", end);
+        result.put("workouts", await(workouts, deadline, "workouts", missing));
+        result.put("meals", await(meals, deadline, "meals", missing));
+        result.put("waterSleep", await(waterSleep, deadline, "waterSleep", missing));
+        result.put("days", await(days, deadline, "days", missing));
+        putPartial(result, missing);
+        return result;
+    }
+
+    // Long-range analytics: one row per day/week/month bucket, summed by the database.
+    // A year comes back as at most 12 (month) or 53 (week) rows. The three GROUP BY
+    // queries run side by side, so the latency is the slowest one, not the sum.
+    public Map<String, Object> getBucketedAnalytics(Long userId, String bucket, LocalDate start, LocalDate end) {
+        CompletableFuture<List<Object[]>> workoutRows = query(
+                () -> workoutRepo.sumByBucket(userId, bucket, start, end));
+        CompletableFuture<List<Object[]>> mealRows = query(
+                () -> mealRepo.sumByBucket(userId, bucket, start, end));
+        CompletableFuture<List<Object[]>> waterSleepRows = query(
+                () -> waterSleepRepo.sumByBucket(userId, bucket, start, end));
+
+        long deadline = System.nanoTime() + queryTimeout.toNanos();
+        List<String> missing = new ArrayList<>();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("buckets", mergeBuckets(
+                await(workoutRows, deadline, "workouts", missing),
+                await(mealRows, deadline, "meals", missing),
+                await(waterSleepRows, deadline, "waterSleep", missing)));
+        putPartial(result, missing);
+        return result;
+    }
+
+    private <T> CompletableFuture<List<T>> query(Supplier<List<T>> read) {
+        return CompletableFuture.supplyAsync(read, queryExecutor);
+    }
+
+    // Waits for one read until the shared deadline. A read that failed or is still
+    // running by then is left out as an empty list and named in 'missing', so one
+    // slow table degrades the response instead of failing it.
+    static <T> List<T> await(CompletableFuture<List<T>> future, long deadlineNanos,
+                             String name, List<String> missing) {
+        try {
+            long remaining = Math.max(0, deadlineNanos - System.nanoTime());
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            future.cancel(false);
+            missing.add(name);
+            return List.of();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            missing.add(name);
+            return List.of();
+        }
+    }
+
+    private static void putPartial(Map<String, Object> result, List<String> missing) {
+        result.put("partial", !missing.isEmpty());
+        if (!missing.isEmpty()) {
+            result.put("missing", missing);
+        }
+    }
+
+    static List<Map<String, Object>> mergeBuckets(List<Object[]> workoutRows,
+                                                  List<Object[]> mealRows,
+                                                  List<Object[]> waterSleepRows) {
+        TreeMap<LocalDate, Map<String, Object>> buckets = new TreeMap<>();
+
+        for (Object[] r : workoutRows) {
+            Map<String, Object> b = bucket(buckets, r[0]);
+            b.put("workoutSessions", ((Number) r[1]).longValue());
+            b.put("workoutMinutes", ((Number) r[2]).longValue());
+            b.put("caloriesBurned", ((Number) r[3]).longValue());
+        }
+        for (Object[] r : mealRows) {
+            Map<String, Object> b = bucket(buckets, r[0]);
+            b.put("caloriesEaten", ((Number) r[1]).longValue());
+            b.put("protein", ((Number) r[2]).longValue());
+            b.put("carbs", ((Number) r[3]).longValue());
+        }
+        for (Object[] r : waterSleepRows) {
+            Map<String, Object> b = bucket(buckets, r[0]);
+            long entries = ((Number) r[1]).longValue();
+            double water = ((Number) r[2]).doubleValue();
+            double sleep = ((Number) r[3]).doubleValue();
+            b.put("avgWaterIntake", entries > 0 ? water / entries : 0.0);
+            b.put("avgSleepHours", entries > 0 ? sleep / entries : 0.0);
+        }
+
+        return new ArrayList<>(buckets.values());
+    }
+
+    // Every bucket row carries all fields, zeroed until a query fills them in
+    private static Map<String, Object> bucket(TreeMap<LocalDate, Map<String, Object>> buckets, Object start) {
+        LocalDate date = start instanceof java.sql.Date d ? d.toLocalDate() : (LocalDate) start;
+        return buckets.computeIfAbsent(date, k -> {
+            Map<String, Object> b = new LinkedHashMap<>();
+            b.put("bucketStart", k);
+            b.put("workoutSessions", 0L);
+            b.put("workoutMinutes", 0L);
+            b.put("caloriesBurned", 0L);
+            b.put("caloriesEaten", 0L);
+            b.put("protein", 0L);
+            b.put("carbs", 0L);
+            b.put("avgWaterIntake", 0.0);
+            b.put("avgSleepHours", 0.0);
+            return b;
+        });
+    }
+
+    // 7 daily buckets starting at 'start'; days without a summary row stay 0
+    static Map<String, Object> buildDashboard(LocalDate start, List<DailySummary> days) {
+        int[] workoutArr = new int[7];
+        int[] calorieArr = new int[7];
+        String[] labels = new String[7];
+
+        for (DailySummary s : days) {
+            int i = (int) (s.getSummaryDate().toEpochDay() - start.toEpochDay());
+            if (i >= 0 && i < 7) {
+                workoutArr[i] += s.getWorkoutMinutes();
+                calorieArr[i] += s.getCaloriesBurned();
+            }
+        }
+
+        for (int i = 0; i < 7; i++) {
+            // Label: e.g. "MON"
+            labels[i] = start.plusDays(i).getDayOfWeek().toString().substring(0, 3);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("labels", labels);
+        result.put("workoutData", workoutArr);
+        result.put("calorieData", calorieArr);
+        result.put("todayCalories", calorieArr[6]);
+        return result;
+    }
+
+    static Map<String, Object> buildWeekly(LocalDate startDate, LocalDate endDate, List<DailySummary> days) {
+        int totalWorkoutMinutes = 0;
+        int totalWorkoutSessions = 0;
+        int totalMealCalories = 0;
+        double totalWater = 0.0;
+        double totalSleep = 0.0;
+        int waterSleepEntries = 0;
+
+        for (DailySummary s : days) {
+            totalWorkoutMinutes += s.getWorkoutMinutes();
+            totalWorkoutSessions += s.getWorkoutSessions();
+            totalMealCalories += s.getCaloriesEaten();
+            totalWater += s.getWaterLiters();
+            totalSleep += s.getSleepHours();
+            waterSleepEntries += s.getWaterSleepEntries();
+        }
+
+        // averages are per water/sleep entry, as before the rollup existed
+        double avgWaterIntake = waterSleepEntries > 0 ? totalWater / waterSleepEntries : 0.0;
+        double avgSleepHours = waterSleepEntries > 0 ? totalSleep / waterSleepEntries : 0.0;
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("startDate", startDate);
+        result.put("endDate", endDate);
+        result.put("totalWorkoutMinutes", totalWorkoutMinutes);
+        result.put("totalWorkoutSessions", totalWorkoutSessions);
+        result.put("totalMealCalories", totalMealCalories);
+        result.put("avgWaterIntake", avgWaterIntake);
+        result.put("avgSleepHours", avgSleepHours);
+        return result;
+    }
+
+    static int orZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    static double orZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
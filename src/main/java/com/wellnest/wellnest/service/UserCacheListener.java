@@ -0,0 +1,35 @@
+package com.wellnest.wellnest.service;
+
+import com.wellnest.wellnest.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts a user's cached profile whenever the entity is inserted, updated or
+ * deleted (profile edits, trainer hire/accept/reject/unhire, admin actions),
+ * so no write path has to remember to do it.
+ *
+ * Bulk JPQL updates bypass entity listeners; the ones in UserRepository only
+ * touch columns that are not part of the profile JSON.
+ */
+@Component
+public class UserCacheListener {
+
+    // lazy: Hibernate instantiates listeners while the EntityManagerFactory is
+    // still being built, before the repositories ProfileCache needs exist
+    private final ObjectProvider<ProfileCache> profileCache;
+
+    public UserCacheListener(ObjectProvider<ProfileCache> profileCache) {
+        this.profileCache = profileCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void evict(User user) {
+        profileCache.ifAvailable(cache -> cache.invalidate(user.getEmail()));
+    }
+}
@@ -0,0 +1,166 @@
+package com.wellnest.wellnest.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Carrier-thread pinning report for virtual-thread mode.
+ *
+ * Streams the JDK's own JFR events in-process: jdk.VirtualThreadPinned (a
+ * virtual thread blocked while holding a monitor or inside native code, so
+ * its carrier could not be reused) and jdk.VirtualThreadSubmitFailed.
+ * Pinned events are grouped by the first frame in our own code, falling
+ * back to the top frame, which points at the synchronized block responsible
+ * (ours, the JDBC driver's, a library's).
+ *
+ * Only runs when virtual threads are active; otherwise the report just says so.
+ */
+@Service
+public class VirtualThreadDiagnostics {
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED = "jdk.VirtualThreadSubmitFailed";
+    private static final String OUR_PACKAGE = "com.wellnest.";
+    private static final int MAX_SITES = 200;
+    private static final int RECENT = 20;
+
+    private final boolean active;
+    private final Duration threshold;
+
+    private RecordingStream stream;
+
+    private final LongAdder pinnedEvents = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final LongAdder submitFailed = new LongAdder();
+    private final Map<String, LongAdder> pinnedBySite = new ConcurrentHashMap<>();
+    private final Deque<Map<String, Object>> recent = new ArrayDeque<>();
+    private final ReentrantLock recentLock = new ReentrantLock();
+
+    public VirtualThreadDiagnostics(Environment environment,
+                                    @Value("${wellnest.diagnostics.pinned-threshold:20ms}") Duration threshold) {
+        this.active = Threading.VIRTUAL.isActive(environment);
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!active) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED).withThreshold(threshold).withStackTrace();
+        stream.enable(SUBMIT_FAILED);
+        stream.onEvent(PINNED, this::onPinned);
+        stream.onEvent(SUBMIT_FAILED, e -> submitFailed.increment());
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedEvents.increment();
+        pinnedNanos.add(event.getDuration().toNanos());
+
+        String site = site(event.getStackTrace());
+        LongAdder counter = pinnedBySite.get(site);
+        if (counter == null) {
+            // bounded: once full, new sites are lumped together
+            counter = pinnedBySite.size() < MAX_SITES
+                    ? pinnedBySite.computeIfAbsent(site, k -> new LongAdder())
+                    : pinnedBySite.computeIfAbsent("(other)", k -> new LongAdder());
+        }
+        counter.increment();
+
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("at", event.getStartTime());
+        entry.put("durationMillis", event.getDuration().toNanos() / 1_000_000.0);
+        entry.put("thread", event.getThread() != null ? event.getThread().getJavaName() : null);
+        entry.put("site", site);
+        recentLock.lock();
+        try {
+            if (recent.size() == RECENT) {
+                recent.removeLast();
+            }
+            recent.addFirst(entry);
+        } finally {
+            recentLock.unlock();
+        }
+    }
+
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "(no stack trace)";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        RecordedFrame chosen = frames.get(0);
+        for (RecordedFrame frame : frames) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(OUR_PACKAGE)) {
+                chosen = frame;
+                break;
+            }
+        }
+        return chosen.getMethod().getType().getName() + "." + chosen.getMethod().getName()
+                + ":" + chosen.getLineNumber();
+    }
+
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("javaVersion", Runtime.version().toString());
+        report.put("virtualThreads", active);
+        if (!active) {
+            report.put("hint", "start with spring.threads.virtual.enabled=true on Java 21+");
+            return report;
+        }
+        report.put("pinnedThresholdMillis", threshold.toMillis());
+        report.put("pinnedEvents", pinnedEvents.sum());
+        report.put("pinnedMillisTotal", pinnedNanos.sum() / 1_000_000.0);
+        report.put("submitFailed", submitFailed.sum());
+
+        List<Map<String, Object>> sites = new ArrayList<>();
+        pinnedBySite.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed())
+                .limit(10)
+                .forEach(e -> {
+                    Map<String, Object> site = new LinkedHashMap<>();
+                    site.put("site", e.getKey());
+                    site.put("events", e.getValue().sum());
+                    sites.add(site);
+                });
+        report.put("topPinnedSites", sites);
+
+        recentLock.lock();
+        try {
+            report.put("recent", new ArrayList<>(recent));
+        } finally {
+            recentLock.unlock();
+        }
+        report.put("generatedAt", Instant.now());
+        return report;
+    }
+}
@@ -3,6 +3,11 @@
 const API_BASE_URL = "http://localhost:8080/api";
 const TRACKER_API = "http://localhost:8080/api/tracker";
 
+// The chat endpoints need the access token from login
+function authHeaders(extra) {
+    return Object.assign({ 'Authorization': `Bearer ${localStorage.getItem('token')}` }, extra);
+}
+
 let trainerUserId = null;
 let chatInterval = null;
 let currentPeriod = 'today'; // Matches the 'active' button in HTML on load
@@ -997,7 +1002,7 @@ async function fetchMessages() {
     if (!trainerUserId) return;
     const myId = localStorage.getItem('userId');
     try {
-        const res = await fetch(`${API_BASE_URL}/messages/conversation?u1=${myId}&u2=${trainerUserId}`);
+        const res = await fetch(`${API_BASE_URL}/messages/conversation?u1=${myId}&u2=${trainerUserId}`, { headers: authHeaders() });
         if (res.ok) {
             const msgs = await res.json();
             const box = document.getElementById('chatMessages');
@@ -1023,7 +1028,7 @@ async function sendChatMessage() {
     try {
         await fetch(`${API_BASE_URL}/messages/send`, {
             method: 'POST',
-            headers: { 'Content-Type': 'application/json' },
+            headers: authHeaders({ 'Content-Type': 'application/json' }),
             body: JSON.stringify({ senderId: myId, receiverId: trainerUserId, content: val })
         });
         input.value = '';
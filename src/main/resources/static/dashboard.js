@@ -5,8 +5,16 @@ const TRACKER_API = "http://localhost:8080/api/tracker";
 
 let trainerUserId = null;
 let chatInterval = null;
+let chatStream = null;
+let chatMessages = [];
+let lastMarkedRead = 0;
 let currentPeriod = 'today'; // Matches the 'active' button in HTML on load
 
+// The chat endpoints need the access token from login
+function authHeaders(extra) {
+    return Object.assign({ 'Authorization': `Bearer ${localStorage.getItem('token')}` }, extra);
+}
+
 // Chart instances
 let workoutDurationChart = null;
 let dualCalorieChart = null;
@@ -177,15 +185,13 @@ async function fetchTrackerStats(userId, period) {
     }
 
     try {
-        const [workoutsRes, mealsRes, waterSleepRes] = await Promise.all([
-            fetch(`${TRACKER_API}/workouts/${userId}/range?start=${startDate}&end=${endDate}`),
-            fetch(`${TRACKER_API}/meals/${userId}/range?start=${startDate}&end=${endDate}`),
-            fetch(`${TRACKER_API}/water-sleep/${userId}/range?start=${startDate}&end=${endDate}`)
-        ]);
+        // One round trip: workouts, meals, water-sleep and daily totals together
+        const res = await fetch(`${TRACKER_API}/${userId}/timeline?start=${startDate}&end=${endDate}`);
+        const timeline = res.ok ? await res.json() : {};
 
-        const workouts = workoutsRes.ok ? await workoutsRes.json() : [];
-        const meals = mealsRes.ok ? await mealsRes.json() : [];
-        const waterSleep = waterSleepRes.ok ? await waterSleepRes.json() : [];
+        const workouts = timeline.workouts || [];
+        const meals = timeline.meals || [];
+        const waterSleep = timeline.waterSleep || [];
 
         return processTrackerData(workouts, meals, waterSleep, period);
     } catch (error) {
@@ -938,6 +944,7 @@ async function fetchTrainerInfo() {
                         document.getElementById("trainerImg").src = trainer.imageUrl;
                     }
                     trainerUserId = trainer.userId;
+                    updateChatBadge();
 
                     const noTrainerMsg = document.getElementById("noTrainerMsg");
                     if (noTrainerMsg) noTrainerMsg.style.display = 'none';
@@ -1021,34 +1028,141 @@ function toggleChat() {
 
     if (isOpening) {
         fetchMessages();
-        chatInterval = setInterval(fetchMessages, 3000);
+        openChatStream();
     } else {
-        clearInterval(chatInterval);
+        closeChatStream();
+    }
+}
+
+// Live updates (Server-Sent Events) while the chat is open. The browser
+// reconnects by itself and the server replays what was missed; polling is
+// only the fallback while the stream is down.
+function openChatStream() {
+    if (!window.EventSource) {
+        startChatPolling();
+        return;
     }
+    const myId = localStorage.getItem('userId');
+    // EventSource cannot set headers, so the token goes in the query string
+    const token = encodeURIComponent(localStorage.getItem('token'));
+    chatStream = new EventSource(`${API_BASE_URL}/messages/stream?userId=${myId}&access_token=${token}`);
+    chatStream.onopen = () => stopChatPolling();
+    chatStream.onmessage = (e) => {
+        const m = JSON.parse(e.data);
+        if (m.senderId == trainerUserId || m.receiverId == trainerUserId) {
+            if (chatMessages.some(x => x.id === m.id)) return;
+            chatMessages.push(m);
+            chatMessages.sort((a, b) => a.id - b.id);
+            renderChat();
+        }
+    };
+    // too much was missed to replay: reload the conversation
+    chatStream.addEventListener('resync', () => {
+        chatMessages = [];
+        fetchMessages();
+    });
+    chatStream.onerror = () => {
+        startChatPolling();
+        if (chatStream && chatStream.readyState === EventSource.CLOSED) {
+            chatStream = null;
+            setTimeout(() => {
+                const modal = document.getElementById('chatModal');
+                if (modal && modal.style.display === 'flex' && !chatStream) openChatStream();
+            }, 30000);
+        }
+    };
+}
+
+function closeChatStream() {
+    if (chatStream) chatStream.close();
+    chatStream = null;
+    stopChatPolling();
+}
+
+function startChatPolling() {
+    if (!chatInterval) chatInterval = setInterval(fetchMessages, 3000);
 }
 
+function stopChatPolling() {
+    if (chatInterval) clearInterval(chatInterval);
+    chatInterval = null;
+}
+
+// First call loads the latest 50 messages; after that only newer ones
 async function fetchMessages() {
     if (!trainerUserId) return;
     const myId = localStorage.getItem('userId');
+    const cursor = chatMessages.length ? `&afterId=${chatMessages[chatMessages.length - 1].id}` : '';
     try {
-        const res = await fetch(`${API_BASE_URL}/messages/conversation?u1=${myId}&u2=${trainerUserId}`);
+        const res = await fetch(`${API_BASE_URL}/messages/conversation?u1=${myId}&u2=${trainerUserId}&limit=50${cursor}`, { headers: authHeaders() });
         if (res.ok) {
-            const msgs = await res.json();
-            const box = document.getElementById('chatMessages');
-            box.innerHTML = msgs.map(m => `
-                <div style="align-self: ${m.senderId == myId ? 'flex-end' : 'flex-start'}; 
-                            background: ${m.senderId == myId ? 'rgba(24, 176, 70, 0.3)' : '#222'}; 
-                            padding: 10px 14px; border-radius: 10px; font-size: 13px; max-width: 75%; margin-bottom: 5px;">
-                    ${m.content}
-                </div>
-            `).join('');
-            box.scrollTop = box.scrollHeight;
+            const page = await res.json();
+            if (!cursor) {
+                chatMessages = page;
+            } else {
+                const fresh = page.filter(m => !chatMessages.some(x => x.id === m.id));
+                if (fresh.length === 0) return;
+                chatMessages = chatMessages.concat(fresh);
+            }
+            renderChat();
         }
     } catch (e) {
         console.error("Error fetching messages:", e);
     }
 }
 
+// Unread count from the coach, shown on the chat button
+async function updateChatBadge() {
+    const chatBtn = document.getElementById("chatBtn");
+    if (!chatBtn || !trainerUserId) return;
+    const myId = localStorage.getItem('userId');
+    try {
+        const res = await fetch(`${API_BASE_URL}/messages/unread?userId=${myId}&otherUserId=${trainerUserId}`, { headers: authHeaders() });
+        if (res.ok) {
+            const data = await res.json();
+            chatBtn.innerText = data.unread > 0 ? `Chat with Coach (${data.unread})` : "Chat with Coach";
+        }
+    } catch (e) {
+        console.error("Error fetching unread count:", e);
+    }
+}
+
+// Marks everything up to the newest message from the coach as read
+async function markChatRead() {
+    const myId = localStorage.getItem('userId');
+    const received = chatMessages.filter(m => m.senderId == trainerUserId);
+    if (received.length === 0) return;
+    const upToId = received[received.length - 1].id;
+    if (lastMarkedRead >= upToId) return;
+    lastMarkedRead = upToId;
+
+    const chatBtn = document.getElementById("chatBtn");
+    if (chatBtn) chatBtn.innerText = "Chat with Coach";
+    try {
+        await fetch(`${API_BASE_URL}/messages/read`, {
+            method: 'POST',
+            headers: authHeaders({ 'Content-Type': 'application/json' }),
+            body: JSON.stringify({ userId: myId, otherUserId: trainerUserId, upToId: upToId })
+        });
+    } catch (e) {
+        console.error("Error marking messages read:", e);
+    }
+}
+
+function renderChat() {
+    const myId = localStorage.getItem('userId');
+    const box = document.getElementById('chatMessages');
+    box.innerHTML = chatMessages.map(m => `
+        <div style="align-self: ${m.senderId == myId ? 'flex-end' : 'flex-start'}; 
+                    background: ${m.senderId == myId ? 'rgba(24, 176, 70, 0.3)' : '#222'}; 
+                    padding: 10px 14px; border-radius: 10px; font-size: 13px; max-width: 75%; margin-bottom: 5px;">
+            ${m.content}
+        </div>
+    `).join('');
+    box.scrollTop = box.scrollHeight;
+    markChatRead();
+}
+
 async function sendChatMessage() {
     const input = document.getElementById('chatInput');
     const val = input.value.trim();
@@ -1057,11 +1171,12 @@ async function sendChatMessage() {
     try {
         await fetch(`${API_BASE_URL}/messages/send`, {
             method: 'POST',
-            headers: { 'Content-Type': 'application/json' },
+            headers: authHeaders({ 'Content-Type': 'application/json' }),
             body: JSON.stringify({ senderId: myId, receiverId: trainerUserId, content: val })
         });
         input.value = '';
-        fetchMessages();
+        // the stream echoes our own message back
+        if (!chatStream || chatStream.readyState !== EventSource.OPEN) fetchMessages();
     } catch (e) {
         console.error("Error sending message:", e);
     }
@@ -3,8 +3,22 @@
 let currentClientId = null;
 let currentClientName = "";
 let chatInterval = null;
+let chatStream = null;
+let currentMessages = [];
+let hasOlderMessages = false;
+let loadingOlder = false;
+let unreadByContact = {};
+let lastMarkedRead = {};
+const PAGE_SIZE = 50;
+const INBOX_PAGE_SIZE = 100;
 const myUserId = localStorage.getItem('userId');
 const trainerEmail = localStorage.getItem('userEmail');
+const authToken = localStorage.getItem('token');
+
+// The chat endpoints need the access token from login
+function authHeaders(extra) {
+    return Object.assign({ 'Authorization': `Bearer ${authToken}` }, extra);
+}
 
 document.addEventListener('DOMContentLoaded', () => {
     if (!myUserId || !trainerEmail) {
@@ -13,6 +27,7 @@ document.addEventListener('DOMContentLoaded', () => {
     }
     fetchContacts();
     fetchTrainerProfile();
+    openChatStream();
 
     // Hamburger Logic
     const hamburger = document.getElementById('hamburgerMenu');
@@ -35,6 +50,14 @@ document.addEventListener('DOMContentLoaded', () => {
         });
     }
 
+    // Scrolling to the top loads the previous page
+    const box = document.getElementById('chatMessages');
+    if (box) {
+        box.addEventListener('scroll', () => {
+            if (box.scrollTop < 40) fetchOlderMessages();
+        });
+    }
+
     // Allow Enter key to send messages
     const input = document.getElementById('chatInput');
     if (input) {
@@ -84,6 +107,8 @@ async function fetchContacts() {
                     </div>
                 </div>
             `).join('');
+            fetchInbox();
+            fetchUnreadCounts();
         }
     } catch (error) {
         console.error("Error fetching contacts:", error);
@@ -91,6 +116,91 @@ async function fetchContacts() {
     }
 }
 
+// ========= Inbox =========
+// Orders the contacts by their latest message and shows its preview;
+// clients without any messages keep their place below.
+async function fetchInbox() {
+    const entries = [];
+    let beforeId = null;
+    try {
+        while (true) {
+            const cursor = beforeId ? `&beforeId=${beforeId}` : '';
+            const response = await fetch(`/api/messages/inbox?userId=${myUserId}&limit=${INBOX_PAGE_SIZE}${cursor}`, { headers: authHeaders() });
+            if (!response.ok) return;
+            const page = await response.json();
+            entries.push(...page);
+            if (page.length < INBOX_PAGE_SIZE) break;
+            beforeId = page[page.length - 1].lastMessageId;
+        }
+    } catch (e) {
+        console.error("Error fetching inbox:", e);
+        return;
+    }
+    for (let i = entries.length - 1; i >= 0; i--) {
+        const c = entries[i];
+        showLastMessage(c.otherUserId, c.lastSenderId, c.lastMessagePreview);
+    }
+}
+
+// Puts the contact first in the list with the given message as its preview
+function showLastMessage(otherUserId, senderId, content) {
+    const el = document.getElementById(`client-${otherUserId}`);
+    if (!el) return;
+    const preview = el.querySelector('.contact-last-msg');
+    if (preview) preview.textContent = (senderId == myUserId ? 'You: ' : '') + (content || '');
+    el.parentNode.prepend(el);
+}
+
+// ========= Unread badges =========
+async function fetchUnreadCounts() {
+    try {
+        const response = await fetch(`/api/messages/unread?userId=${myUserId}`, { headers: authHeaders() });
+        if (response.ok) {
+            const data = await response.json();
+            unreadByContact = {};
+            data.conversations.forEach(c => unreadByContact[c.otherUserId] = c.unread);
+            renderUnreadBadges();
+        }
+    } catch (e) { console.error("Error fetching unread counts:", e); }
+}
+
+function renderUnreadBadges() {
+    document.querySelectorAll('.contact-item').forEach(el => {
+        const n = unreadByContact[el.id.replace('client-', '')] || 0;
+        let badge = el.querySelector('.contact-badge');
+        if (n === 0) {
+            if (badge) badge.remove();
+            return;
+        }
+        if (!badge) {
+            badge = document.createElement('span');
+            badge.className = 'contact-badge';
+            el.appendChild(badge);
+        }
+        badge.textContent = n > 99 ? '99+' : n;
+    });
+}
+
+// Marks everything up to the newest received message of the open conversation as read
+async function markConversationRead() {
+    if (!currentClientId) return;
+    const received = currentMessages.filter(m => m.senderId == currentClientId);
+    if (received.length === 0) return;
+    const upToId = received[received.length - 1].id;
+    if (lastMarkedRead[currentClientId] >= upToId) return;
+    lastMarkedRead[currentClientId] = upToId;
+
+    unreadByContact[currentClientId] = 0;
+    renderUnreadBadges();
+    try {
+        await fetch('/api/messages/read', {
+            method: 'POST',
+            headers: authHeaders({ 'Content-Type': 'application/json' }),
+            body: JSON.stringify({ userId: myUserId, otherUserId: currentClientId, upToId: upToId })
+        });
+    } catch (e) { console.error("Error marking messages read:", e); }
+}
+
 function selectConversation(clientId, clientName) {
     currentClientId = clientId;
     currentClientName = clientName;
@@ -105,30 +215,118 @@ function selectConversation(clientId, clientName) {
     document.querySelectorAll('.contact-item').forEach(el => el.classList.remove('active'));
     document.getElementById(`client-${clientId}`).classList.add('active');
 
+    currentMessages = [];
     fetchMessages();
 
-    // Set up polling
+    // New messages arrive over the stream; poll only while it is not connected
+    stopPolling();
+    if (!chatStream || chatStream.readyState !== EventSource.OPEN) startPolling();
+}
+
+// Live updates (Server-Sent Events). The browser reconnects by itself and the
+// server replays what was missed; polling is only the fallback while it is down.
+function openChatStream() {
+    if (!window.EventSource) {
+        startPolling();
+        return;
+    }
+    // EventSource cannot set headers, so the token goes in the query string
+    chatStream = new EventSource(`/api/messages/stream?userId=${myUserId}&access_token=${encodeURIComponent(authToken)}`);
+    chatStream.onopen = () => {
+        stopPolling();
+        fetchUnreadCounts();
+    };
+    chatStream.onmessage = (e) => {
+        const m = JSON.parse(e.data);
+        showLastMessage(m.senderId == myUserId ? m.receiverId : m.senderId, m.senderId, m.content);
+        if (currentClientId && (m.senderId == currentClientId || m.receiverId == currentClientId)) {
+            addMessage(m);
+            markConversationRead();
+        } else if (m.receiverId == myUserId) {
+            unreadByContact[m.senderId] = (unreadByContact[m.senderId] || 0) + 1;
+            renderUnreadBadges();
+        }
+    };
+    // too much was missed to replay: reload the conversation
+    chatStream.addEventListener('resync', () => {
+        currentMessages = [];
+        fetchMessages();
+    });
+    chatStream.onerror = () => {
+        startPolling();
+        if (chatStream.readyState === EventSource.CLOSED) {
+            chatStream = null;
+            setTimeout(openChatStream, 30000);
+        }
+    };
+}
+
+function startPolling() {
+    if (!chatInterval && currentClientId) chatInterval = setInterval(fetchMessages, 3000);
+}
+
+function stopPolling() {
     if (chatInterval) clearInterval(chatInterval);
-    chatInterval = setInterval(fetchMessages, 3000);
+    chatInterval = null;
 }
 
+function addMessage(m) {
+    if (currentMessages.some(x => x.id === m.id)) return;
+    currentMessages.push(m);
+    currentMessages.sort((a, b) => a.id - b.id);
+    renderMessages(currentMessages);
+}
+
+// First call loads the latest page; after that only messages newer than the last one we have
 async function fetchMessages() {
     if (!currentClientId) return;
+    const clientId = currentClientId;
+    const initial = currentMessages.length === 0;
+    const cursor = initial ? '' : `&afterId=${currentMessages[currentMessages.length - 1].id}`;
 
     try {
-        const response = await fetch(`/api/messages/conversation?u1=${myUserId}&u2=${currentClientId}`);
-        if (response.ok) {
-            const msgs = await response.json();
-            renderMessages(msgs);
+        const response = await fetch(`/api/messages/conversation?u1=${myUserId}&u2=${clientId}&limit=${PAGE_SIZE}${cursor}`, { headers: authHeaders() });
+        if (response.ok && clientId === currentClientId) {
+            const page = await response.json();
+            if (initial) {
+                currentMessages = page;
+                hasOlderMessages = page.length === PAGE_SIZE;
+                renderMessages(currentMessages, true);
+            } else {
+                page.forEach(addMessage);
+            }
+            markConversationRead();
         }
     } catch (e) {
         console.error("Error fetching messages:", e);
     }
 }
 
-function renderMessages(msgs) {
+async function fetchOlderMessages() {
+    if (!currentClientId || !hasOlderMessages || loadingOlder || currentMessages.length === 0) return;
+    const clientId = currentClientId;
+    loadingOlder = true;
+    try {
+        const response = await fetch(`/api/messages/conversation?u1=${myUserId}&u2=${clientId}&limit=${PAGE_SIZE}&beforeId=${currentMessages[0].id}`, { headers: authHeaders() });
+        if (response.ok && clientId === currentClientId) {
+            const page = await response.json();
+            hasOlderMessages = page.length === PAGE_SIZE;
+            const box = document.getElementById('chatMessages');
+            const fromBottom = box.scrollHeight - box.scrollTop;
+            currentMessages = page.concat(currentMessages);
+            renderMessages(currentMessages);
+            box.scrollTop = box.scrollHeight - fromBottom; // keep the view where it was
+        }
+    } catch (e) {
+        console.error("Error fetching older messages:", e);
+    } finally {
+        loadingOlder = false;
+    }
+}
+
+function renderMessages(msgs, scrollToBottom) {
     const box = document.getElementById('chatMessages');
-    const isAtBottom = box.scrollHeight - box.scrollTop <= box.clientHeight + 50;
+    const isAtBottom = scrollToBottom || box.scrollHeight - box.scrollTop <= box.clientHeight + 50;
 
     box.innerHTML = msgs.map(m => `
         <div class="message-bubble ${m.senderId == myUserId ? 'sent' : 'received'}">
@@ -156,13 +354,14 @@ async function sendMessage() {
     try {
         const response = await fetch('/api/messages/send', {
             method: 'POST',
-            headers: { 'Content-Type': 'application/json' },
+            headers: authHeaders({ 'Content-Type': 'application/json' }),
             body: JSON.stringify(msgData)
         });
 
         if (response.ok) {
             input.value = '';
-            fetchMessages();
+            // the stream echoes our own message back
+            if (!chatStream || chatStream.readyState !== EventSource.OPEN) fetchMessages();
         }
     } catch (e) {
         console.error("Error sending message:", e);
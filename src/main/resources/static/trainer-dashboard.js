@@ -4,6 +4,11 @@ let trainerData = null;
 let currentMonth = new Date().getMonth();
 let currentYear = new Date().getFullYear();
 
+// The chat endpoints need the access token from login
+function authHeaders(extra) {
+    return Object.assign({ 'Authorization': `Bearer ${localStorage.getItem('token')}` }, extra);
+}
+
 document.addEventListener('DOMContentLoaded', () => {
     console.log("DEBUG: Trainer Dashboard Loaded");
     fetchClients();
@@ -35,6 +40,7 @@ document.addEventListener('DOMContentLoaded', () => {
 
 let currentClientId = null;
 let chatInterval = null;
+let chatMessages = [];
 
 async function fetchClients() {
     const trainerEmail = localStorage.getItem('userEmail');
@@ -290,7 +296,7 @@ async function fetchTrainerProfileAndStats() {
         const response = await fetch(`/api/trainers`);
         if (response.ok) {
             const trainers = await response.json();
-            const me = trainers.find(t => t.contactEmail === email);
+            const me = trainers.find(t => t.contactEmail === email.trim().toLowerCase());
             if (me) {
                 console.log("DEBUG: Found trainer profile", me);
                 trainerData = me;
@@ -495,6 +501,7 @@ function openChatWithClient(clientId, clientName) {
     document.getElementById('chatTitle').textContent = `Chat with ${clientName}`;
     const modal = document.getElementById('chatModal');
     modal.style.display = 'flex';
+    chatMessages = [];
     fetchMessages();
     if (chatInterval) clearInterval(chatInterval);
     chatInterval = setInterval(fetchMessages, 3000);
@@ -507,15 +514,20 @@ function closeChat() {
 
 function toggleChat() { closeChat(); }
 
+// First call loads the latest 50 messages; each poll after that only asks for newer ones
 async function fetchMessages() {
     const myUserId = localStorage.getItem('userId');
     if (!myUserId || !currentClientId) return;
+    const clientId = currentClientId;
+    const cursor = chatMessages.length ? `&afterId=${chatMessages[chatMessages.length - 1].id}` : '';
     try {
-        const response = await fetch(`/api/messages/conversation?u1=${myUserId}&u2=${currentClientId}`);
-        if (response.ok) {
-            const msgs = await response.json();
+        const response = await fetch(`/api/messages/conversation?u1=${myUserId}&u2=${clientId}&limit=50${cursor}`, { headers: authHeaders() });
+        if (response.ok && clientId === currentClientId) {
+            const page = await response.json();
+            if (cursor && page.length === 0) return;
+            chatMessages = cursor ? chatMessages.concat(page) : page;
             const box = document.getElementById('chatMessages');
-            box.innerHTML = msgs.map(m => `
+            box.innerHTML = chatMessages.map(m => `
                 <div class="chat-msg ${m.senderId == myUserId ? 'sent' : 'received'}">
                     ${m.content}
                 </div>
@@ -534,7 +546,7 @@ async function sendChatMessage() {
     try {
         const response = await fetch('/api/messages/send', {
             method: 'POST',
-            headers: { 'Content-Type': 'application/json' },
+            headers: authHeaders({ 'Content-Type': 'application/json' }),
             body: JSON.stringify(msgData)
         });
         if (response.ok) {